@@ -14,15 +14,26 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 import java.util.stream.BaseStream;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import com.akalea.sugar.internal.IntIntMap;
+import com.akalea.sugar.internal.IntList;
 import com.akalea.sugar.internal.KeyValue;
+import com.akalea.sugar.internal.LongList;
+import com.akalea.sugar.internal.LongLongMap;
+import com.akalea.sugar.internal.Multimap;
+import com.akalea.sugar.internal.ObjectIntMap;
+import com.akalea.sugar.internal.ObjectLongMap;
 import com.akalea.sugar.internal.Pair;
+import com.akalea.sugar.internal.Seq;
 import com.akalea.sugar.internal.Tuple3;
 import com.akalea.sugar.internal.Tuple4;
+import com.akalea.sugar.internal.Window;
 
 public interface Collections {
 
@@ -40,6 +51,20 @@ public interface Collections {
         return new Tuple4<>(first, second, third, fourth);
     }
 
+    // ==================== Lazy Sequences ====================
+
+    /**
+     * Starts a lazy chain over the elements: operations are fused into one pass and run at the terminal call.
+     */
+    public static <T> Seq<T> seq(Iterable<T> objs) {
+        return Seq.of(objs);
+    }
+
+    @SafeVarargs
+    public static <T> Seq<T> seq(T... elements) {
+        return Seq.of(elements);
+    }
+
     // ==================== Enhanced Collection Operations ====================
 
     public static <T, K> List<T> distinctBy(Collection<T> objs, Function<T, K> keyExtractor) {
@@ -120,6 +145,30 @@ public interface Collections {
         return windows;
     }
 
+    /**
+     * Same as sliding, as a read-only view: windows are created on access and share the list's
+     * elements instead of copying them. Copy a window with new ArrayList to keep it.
+     */
+    public static <T> List<List<T>> slidingView(List<T> objs, int size) {
+        return slidingView(objs, size, 1);
+    }
+
+    public static <T> List<List<T>> slidingView(List<T> objs, int size, int step) {
+        if (objs == null || size <= 0 || step <= 0)
+            return new ArrayList<>();
+        return Window.sliding(objs, size, step);
+    }
+
+    /**
+     * Passes every window of the list to the consumer, moving a single view along the list.
+     * The consumer must copy a window to keep it.
+     */
+    public static <T> void forEachWindow(List<T> objs, int size, int step, Consumer<List<T>> consumer) {
+        if (objs == null || size <= 0 || step <= 0)
+            return;
+        Window.forEachSliding(objs, size, step, consumer);
+    }
+
     public static <T, R> List<R> scan(Collection<T> objs, R initial, BiFunction<R, T, R> accumulator) {
         if (objs == null)
             return list(initial);
@@ -347,7 +396,7 @@ public interface Collections {
 
     public static List<Integer> iRange(int from, int toExclusive) {
         return IntStream
-            .range(0, toExclusive)
+            .range(from, toExclusive)
             .boxed()
             .collect(Collectors.toList());
     }
@@ -359,6 +408,22 @@ public interface Collections {
         return values;
     }
 
+    /**
+     * Same as iRange without boxing: the values are stored in a single int array.
+     */
+    public static IntList intRange(int from, int toExclusive) {
+        return intRange(from, toExclusive, 1);
+    }
+
+    public static IntList intRange(int from, int toExclusive, int step) {
+        if (step <= 0)
+            throw new IllegalArgumentException("Step must be positive");
+        IntList values = new IntList(from < toExclusive ? (int) ((toExclusive - (long) from + step - 1) / step) : 0);
+        for (long i = from; i < toExclusive; i += step)
+            values.add((int) i);
+        return values;
+    }
+
     public static <K, T> T orElse(Map<K, Object> map, K key, T other) {
         return map.containsKey(key) ? (T) map.get(key) : other;
     }
@@ -643,13 +708,42 @@ public interface Collections {
     public static <T, K> Map<K, List<T>> groupBy(
         Collection<T> objs,
         Function<T, K> keys) {
-        return objs
-            .stream()
-            .collect(
-                Collectors.toMap(
-                    o -> keys.apply(o),
-                    o -> (List<T>) list(o),
-                    (l1, l2) -> (List<T>) concat(l1, l2)));
+        return Multimap.<K, T> hash().putAll(objs, keys).asMap();
+    }
+
+    /**
+     * Groups elements by key, keeping keys in the order they are first seen.
+     */
+    public static <T, K> Map<K, List<T>> groupByLinked(
+        Collection<T> objs,
+        Function<T, K> keys) {
+        return Multimap.<K, T> linked().putAll(objs, keys).asMap();
+    }
+
+    /**
+     * Groups elements by key, with keys in natural order.
+     */
+    public static <T, K extends Comparable<K>> Map<K, List<T>> groupBySorted(
+        Collection<T> objs,
+        Function<T, K> keys) {
+        return Multimap.<K, T> sorted().putAll(objs, keys).asMap();
+    }
+
+    /**
+     * Groups elements by key and reduces each group with the downstream collector,
+     * accumulating in place without building the groups first.
+     */
+    public static <T, K, A, D> Map<K, D> groupBy(
+        Collection<T> objs,
+        Function<T, K> keys,
+        Collector<? super T, A, D> downstream) {
+        Map<K, A> containers = new HashMap<>();
+        BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        for (T obj : objs)
+            accumulator.accept(containers.computeIfAbsent(keys.apply(obj), k -> downstream.supplier().get()), obj);
+        Map<K, D> result = new HashMap<>(Math.max(16, (int) (containers.size() / 0.75f) + 1));
+        containers.forEach((k, container) -> result.put(k, downstream.finisher().apply(container)));
+        return result;
     }
 
     public static <T, K> Map<K, List<T>> apply(
@@ -659,18 +753,34 @@ public interface Collections {
     }
 
     public static <T, K> Map<K, Integer> counts(Collection<T> objs, Function<T, K> keys) {
-        return sums(objs, keys, k -> 1);
+        return intCounts(objs, keys).toMap();
     }
 
     public static <T, K> Map<K, Integer> sums(
         Collection<T> objs,
         Function<T, K> keys,
         Function<T, Integer> values) {
-        return toMap(
-            objs,
-            keys,
-            values,
-            (c1, c2) -> c1 + c2);
+        return intSums(objs, keys, o -> values.apply(o)).toMap();
+    }
+
+    /**
+     * Same as counts, in a primitive map: counting does not box.
+     */
+    public static <T, K> ObjectIntMap<K> intCounts(Collection<T> objs, Function<T, K> keys) {
+        return intSums(objs, keys, o -> 1);
+    }
+
+    /**
+     * Same as sums, in a primitive map: each value is added in place without boxing.
+     */
+    public static <T, K> ObjectIntMap<K> intSums(
+        Collection<T> objs,
+        Function<T, K> keys,
+        ToIntFunction<T> values) {
+        ObjectIntMap<K> sums = new ObjectIntMap<>();
+        for (T obj : objs)
+            sums.addTo(keys.apply(obj), values.applyAsInt(obj));
+        return sums;
     }
 
     public static <T, K, V> Map<K, V> toMap(
@@ -872,14 +982,11 @@ public interface Collections {
     public static <T, R> Map<R, Long> flatCount(
         Collection<T> collection,
         Function<T, Collection<R>> func) {
-        List<R> values = flatMap(collection, func);
-        return values
-            .stream()
-            .collect(
-                Collectors.toMap(
-                    v -> v,
-                    v -> 1l,
-                    (c1, c2) -> c1 + c2));
+        ObjectLongMap<R> counts = new ObjectLongMap<>();
+        for (T obj : collection)
+            for (R value : func.apply(obj))
+                counts.addTo(value, 1);
+        return counts.toMap();
     }
 
     public static <T> List<KeyValue<Integer, T>> enumerate(T... elements) {
@@ -910,6 +1017,15 @@ public interface Collections {
         return partitions;
     }
 
+    /**
+     * Same as partition by size, as a read-only view: chunks are created on access.
+     */
+    public static <T> List<List<T>> partitionView(List<T> elements, int size) {
+        if (elements == null || size <= 0)
+            return new ArrayList<>();
+        return Window.chunks(elements, size);
+    }
+
     public static <T1, T2> List<Pair<T1, T2>> zip(List<T1> l1, List<T2> l2) {
         List<Pair<T1, T2>> zipped = new ArrayList<>();
         for (int i = 0; i < l1.size(); i++) {
@@ -1013,10 +1129,41 @@ public interface Collections {
      * Returns a map of each element to its frequency count.
      */
     public static <T> Map<T, Long> frequencies(Collection<T> objs) {
+        return longFrequencies(objs).toMap();
+    }
+
+    /**
+     * Same as frequencies, in a primitive map: counting does not box.
+     */
+    public static <T> ObjectLongMap<T> longFrequencies(Collection<T> objs) {
+        ObjectLongMap<T> frequencies = new ObjectLongMap<>();
         if (objs == null)
-            return new HashMap<>();
-        return objs.stream()
-            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            return frequencies;
+        for (T obj : objs)
+            frequencies.addTo(obj, 1);
+        return frequencies;
+    }
+
+    /**
+     * Returns a map of each int to its frequency count, without boxing.
+     */
+    public static IntIntMap intValueFrequencies(IntList values) {
+        IntIntMap frequencies = new IntIntMap();
+        if (values == null)
+            return frequencies;
+        values.forEach(v -> frequencies.addTo(v, 1));
+        return frequencies;
+    }
+
+    /**
+     * Returns a map of each long to its frequency count, without boxing.
+     */
+    public static LongLongMap longValueFrequencies(LongList values) {
+        LongLongMap frequencies = new LongLongMap();
+        if (values == null)
+            return frequencies;
+        values.forEach(v -> frequencies.addTo(v, 1));
+        return frequencies;
     }
 
     /**
@@ -1083,6 +1230,32 @@ public interface Collections {
         return pair(new ArrayList<>(objs.subList(0, index)), new ArrayList<>(objs.subList(index, objs.size())));
     }
 
+    /**
+     * Same as span, returning read-only views of the list instead of copies.
+     */
+    public static <T> Pair<List<T>, List<T>> spanView(List<T> objs, Predicate<T> predicate) {
+        if (objs == null)
+            return pair(new ArrayList<>(), new ArrayList<>());
+        int index = 0;
+        for (T obj : objs) {
+            if (!predicate.test(obj))
+                break;
+            index++;
+        }
+        return splitAtView(objs, index);
+    }
+
+    /**
+     * Same as splitAt, returning read-only views of the list instead of copies.
+     */
+    public static <T> Pair<List<T>, List<T>> splitAtView(List<T> objs, int index) {
+        if (objs == null)
+            return pair(new ArrayList<>(), new ArrayList<>());
+        int split = Math.max(0, Math.min(index, objs.size()));
+        Window<T> all = Window.of(objs, 0, objs.size());
+        return pair(all.subList(0, split), all.subList(split, objs.size()));
+    }
+
     /**
      * Returns the union of two sets.
      */
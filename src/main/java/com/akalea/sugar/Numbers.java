@@ -5,6 +5,10 @@ import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.akalea.sugar.internal.DoubleList;
+import com.akalea.sugar.internal.IntList;
+import com.akalea.sugar.internal.LongList;
+
 /**
  * Numeric utilities.
  */
@@ -140,6 +144,65 @@ public interface Numbers {
         return result;
     }
 
+    /**
+     * Same as range(int, int, int), stored in an IntList without boxing.
+     */
+    public static IntList intRange(int start, int end, int step) {
+        IntList result = new IntList((int) Math.max(0, Math.min(Integer.MAX_VALUE - 8, count(start, end, step))));
+        if (step > 0) {
+            for (long i = start; i < end; i += step) {
+                result.add((int) i);
+            }
+        } else if (step < 0) {
+            for (long i = start; i > end; i += step) {
+                result.add((int) i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Same as range(long, long, long), stored in a LongList without boxing.
+     */
+    public static LongList longRange(long start, long end, long step) {
+        LongList result = new LongList();
+        if (step > 0) {
+            for (long i = start; i < end; i += step) {
+                result.add(i);
+            }
+        } else if (step < 0) {
+            for (long i = start; i > end; i += step) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Same as range(double, double, double), stored in a DoubleList without boxing.
+     */
+    public static DoubleList doubleRange(double start, double end, double step) {
+        DoubleList result = new DoubleList();
+        if (step > 0) {
+            for (double i = start; i < end; i += step) {
+                result.add(i);
+            }
+        } else if (step < 0) {
+            for (double i = start; i > end; i += step) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    private static long count(long start, long end, long step) {
+        if (step > 0)
+            return start < end ? (end - start + step - 1) / step : 0;
+        if (step < 0)
+            return start > end ? (start - end - step - 1) / -step : 0;
+        return 0;
+    }
+
     /**
      * Rounds a double to the specified number of decimal places.
      */
@@ -3,113 +3,748 @@ package com.akalea.sugar;
 import static com.akalea.sugar.Collections.*;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.akalea.sugar.internal.AdaptiveLimiter;
+import com.akalea.sugar.internal.Batcher;
+import com.akalea.sugar.internal.Bulkhead;
+import com.akalea.sugar.internal.CallNotPermittedException;
+import com.akalea.sugar.internal.CircuitBreaker;
+import com.akalea.sugar.internal.ForkJoin;
+import com.akalea.sugar.internal.Hedge;
+import com.akalea.sugar.internal.ObjectIntMap;
+import com.akalea.sugar.internal.ObjectLongMap;
+import com.akalea.sugar.internal.PeriodicTask;
+import com.akalea.sugar.internal.PoolStats;
+import com.akalea.sugar.internal.Pools;
+import com.akalea.sugar.internal.RateLimiter;
+import com.akalea.sugar.internal.Scope;
+import com.akalea.sugar.internal.StreamingMap;
+import com.akalea.sugar.internal.TaskResult;
 
 public class Parallel {
 
+    /**
+     * Runs the runnable in a loop on a dedicated thread, pausing for the delay between runs.
+     * Exceptions are passed to the thread's uncaught exception handler without ending the loop,
+     * and the loop ends when the thread is interrupted. The thread is not a daemon, so it keeps
+     * the JVM alive until interrupted.
+     * @deprecated use {@link #fixedDelay(Runnable, Duration)}, which shares the scheduler instead of holding a thread
+     */
+    @Deprecated
     public static Thread background(Runnable runnable, Duration delay) {
         Thread t = new Thread(() -> {
-            while (true) {
+            while (!Thread.currentThread().isInterrupted()) {
                 try {
                     runnable.run();
-                    Thread.currentThread().sleep(delay.getSeconds() * 1000);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
+                } catch (RuntimeException e) {
+                    reportUncaught(e);
+                }
+                try {
+                    Thread.sleep(Math.max(1, delay.toMillis()));
+                } catch (InterruptedException e) {
+                    return;
                 }
             }
-        });
+        }, "sugar-background");
         t.start();
         return t;
     }
 
-    private static void execute(List<Runnable> tasks, int threadCount) {
-        execute(tasks, threadCount, null);
+    /**
+     * Hands an exception to the current thread's uncaught exception handler and keeps the thread alive,
+     * as a periodic task with the CONTINUE policy would.
+     */
+    private static void reportUncaught(Throwable e) {
+        Thread current = Thread.currentThread();
+        try {
+            current.getUncaughtExceptionHandler().uncaughtException(current, e);
+        } catch (RuntimeException handlerError) {
+            // a failing handler must not end the loop
+        }
     }
 
-    private static void execute(List<Runnable> tasks, int threadCount, Duration maxDuration) {
+    private static void execute(int count, IntConsumer task, int threadCount) {
+        execute(count, 1, task, threadCount);
+    }
+
+    private static void execute(int count, int grainSize, IntConsumer task, int threadCount) {
+        execute(count, grainSize, task, threadCount, Pools.forConcurrency(threadCount), true);
+    }
+
+    private static void execute(int count, IntConsumer task, ExecutorService executor) {
+        execute(count, 1, task, parallelism(executor), executor, false);
+    }
+
+    /**
+     * Runs task(0) .. task(count - 1) with at most threadCount workers, each claiming
+     * contiguous ranges of grainSize indexes from a shared counter.
+     * When callerRuns is set the calling thread acts as one of the workers, so the batch
+     * always makes progress even if the pool is saturated by enclosing batches.
+     * After the first failure the remaining ranges are skipped, since the result is lost anyway.
+     */
+    private static void execute(
+        int count,
+        int grainSize,
+        IntConsumer task,
+        int threadCount,
+        ExecutorService executor,
+        boolean callerRuns) {
+        if (count == 0)
+            return;
+        int grain = Math.max(1, grainSize);
+        int chunks = (int) ((count + (long) grain - 1) / grain);
+        AtomicInteger next = new AtomicInteger(0);
+        CountDownLatch done = new CountDownLatch(chunks);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            int chunk;
+            while ((chunk = next.getAndIncrement()) < chunks) {
+                int from = chunk * grain;
+                int to = Math.min(count, from + grain);
+                try {
+                    if (failure.get() != null)
+                        continue;
+                    for (int i = from; i < to; i++)
+                        task.accept(i);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+        int workers = Math.max(1, Math.min(threadCount, chunks));
+        List<Future<?>> helpers = new ArrayList<>();
         try {
-            ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-            List<Future> futures = map(tasks, t -> executor.submit(t));
-            executor.shutdown();
-            if (maxDuration != null)
-                executor.awaitTermination(maxDuration.getSeconds(), TimeUnit.SECONDS);
-            else
-                forEach(futures, f -> {
-                    try {
-                        f.get();
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
-                });
+            for (int w = callerRuns ? 1 : 0; w < workers; w++)
+                helpers.add(executor.submit(worker));
+        } catch (RejectedExecutionException e) {
+            if (!callerRuns && helpers.isEmpty())
+                throw e;
+        }
+        if (callerRuns)
+            worker.run();
+        try {
+            done.await();
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } finally {
+            helpers.forEach(f -> f.cancel(false));
         }
+        if (failure.get() != null)
+            throw new RuntimeException(failure.get());
     }
 
-    private static void execute(List<Runnable> tasks, ExecutorService executor) {
-        List<Future> futures = map(tasks, t -> executor.submit(t));
-        forEach(futures, f -> {
-            try {
-                f.get();
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+    /**
+     * Picks a range size giving each worker about four ranges, enough to even out
+     * uneven ranges without paying scheduling costs per element.
+     */
+    private static int grainSize(int count, int threadCount) {
+        return Math.max(1, count / (Math.max(1, threadCount) * 4));
+    }
+
+    private static int parallelism(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor)
+            return ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+        if (executor instanceof ForkJoinPool)
+            return ((ForkJoinPool) executor).getParallelism();
+        return Integer.MAX_VALUE;
+    }
+
+    private static <T> List<T> indexed(List<T> objects) {
+        return objects instanceof RandomAccess ? objects : new ArrayList<>(objects);
+    }
+
+    @SuppressWarnings("unchecked") // every slot was written with an R by the task at that index
+    private static <R> List<R> results(Object[] results) {
+        return new ArrayList<>(java.util.Arrays.asList((R[]) results));
     }
 
     public static <T> List<T> compute(List<Supplier<T>> functions, int threadCount) {
-        Map<Integer, T> results = java.util.Collections.synchronizedMap(new HashMap());
-        List<Runnable> tasks =
-            map(
-                enumerate(functions),
-                f -> () -> results.put(f.getKey(), f.getValue().get()));
-        execute(tasks, threadCount);
-        return map(sorted(results.keySet()), i -> results.get(i));
+        List<Supplier<T>> suppliers = indexed(functions);
+        Object[] results = new Object[suppliers.size()];
+        execute(results.length, i -> results[i] = suppliers.get(i).get(), threadCount);
+        return results(results);
     }
 
     public static <T, R> List<R> pMap(List<T> objects, Function<T, R> function) {
-        return pMap(objects, function, Runtime.getRuntime().availableProcessors());
+        return pMap(objects, function, Pools.cores());
     }
 
     public static <T, R> List<R> pMap(List<T> objects, Function<T, R> function, int threadCount) {
-        Map<Integer, R> results = java.util.Collections.synchronizedMap(new HashMap());
-        List<Runnable> tasks =
-            map(
-                enumerate(objects),
-                o -> () -> results.put(o.getKey(), function.apply(o.getValue())));
-        execute(tasks, threadCount);
-        return map(sorted(results.keySet()), i -> results.get(i));
+        List<T> inputs = indexed(objects);
+        Object[] results = new Object[inputs.size()];
+        execute(results.length, i -> results[i] = function.apply(inputs.get(i)), threadCount);
+        return results(results);
     }
 
     public static <T, R> List<R> pMap(
         List<T> objects,
         Function<T, R> function,
         ExecutorService executor) {
-        Map<Integer, R> results = java.util.Collections.synchronizedMap(new HashMap());
-        List<Runnable> tasks =
-            map(
-                enumerate(objects),
-                o -> () -> results.put(o.getKey(), function.apply(o.getValue())));
-        execute(tasks, executor);
-        return map(sorted(results.keySet()), i -> results.get(i));
+        List<T> inputs = indexed(objects);
+        Object[] results = new Object[inputs.size()];
+        execute(results.length, i -> results[i] = function.apply(inputs.get(i)), executor);
+        return results(results);
     }
 
     public static <T> void pEach(List<T> objects, Consumer<T> function) {
-        pEach(objects, function, Runtime.getRuntime().availableProcessors());
+        pEach(objects, function, Pools.cores());
     }
 
     public static <T> void pEach(List<T> objects, Consumer<T> function, int threadCount) {
-        List<Runnable> tasks = map(objects, o -> () -> function.accept(o));
-        execute(tasks, threadCount);
+        List<T> inputs = indexed(objects);
+        execute(inputs.size(), i -> function.accept(inputs.get(i)), threadCount);
+    }
+
+    // ==================== Chunked Execution ====================
+
+    /**
+     * Maps elements in parallel, splitting the list into contiguous ranges processed by one worker each.
+     * Range size adapts to the list size, which suits cheap functions over large lists.
+     */
+    public static <T, R> List<R> pMapChunked(List<T> objects, Function<T, R> function) {
+        return pMapChunked(objects, function, grainSize(objects.size(), Pools.cores()), Pools.cores());
+    }
+
+    /**
+     * Maps elements in parallel, each worker processing ranges of grainSize elements.
+     */
+    public static <T, R> List<R> pMapChunked(List<T> objects, Function<T, R> function, int grainSize) {
+        return pMapChunked(objects, function, grainSize, Pools.cores());
+    }
+
+    /**
+     * Maps elements in parallel with threadCount workers, each processing ranges of grainSize elements.
+     */
+    public static <T, R> List<R> pMapChunked(
+        List<T> objects,
+        Function<T, R> function,
+        int grainSize,
+        int threadCount) {
+        List<T> inputs = indexed(objects);
+        Object[] results = new Object[inputs.size()];
+        execute(
+            results.length,
+            grainSize,
+            i -> results[i] = function.apply(inputs.get(i)),
+            threadCount);
+        return results(results);
+    }
+
+    /**
+     * Applies the consumer in parallel, splitting the list into contiguous ranges processed by one worker each.
+     */
+    public static <T> void pEachChunked(List<T> objects, Consumer<T> function) {
+        pEachChunked(objects, function, grainSize(objects.size(), Pools.cores()));
+    }
+
+    /**
+     * Applies the consumer in parallel, each worker processing ranges of grainSize elements.
+     */
+    public static <T> void pEachChunked(List<T> objects, Consumer<T> function, int grainSize) {
+        pEachChunked(objects, function, grainSize, Pools.cores());
+    }
+
+    /**
+     * Applies the consumer in parallel with threadCount workers, each processing ranges of grainSize elements.
+     */
+    public static <T> void pEachChunked(
+        List<T> objects,
+        Consumer<T> function,
+        int grainSize,
+        int threadCount) {
+        List<T> inputs = indexed(objects);
+        execute(inputs.size(), grainSize, i -> function.accept(inputs.get(i)), threadCount);
+    }
+
+    // ==================== Fork/Join Execution ====================
+
+    /**
+     * Maps elements in parallel on the work-stealing pool, recursively splitting the list.
+     * Suits workloads where per-element cost is skewed.
+     */
+    public static <T, R> List<R> pMapForkJoin(List<T> objects, Function<T, R> function) {
+        return pMapForkJoin(objects, function, ForkJoin.grainSize(objects.size(), Pools.cores()));
+    }
+
+    /**
+     * Maps elements in parallel on the work-stealing pool, splitting down to ranges of grainSize elements.
+     */
+    public static <T, R> List<R> pMapForkJoin(List<T> objects, Function<T, R> function, int grainSize) {
+        List<T> inputs = indexed(objects);
+        Object[] results = new Object[inputs.size()];
+        forkJoin(() -> ForkJoin.forEach(
+            Pools.forkJoin(),
+            results.length,
+            grainSize,
+            i -> results[i] = function.apply(inputs.get(i))));
+        return results(results);
+    }
+
+    /**
+     * Applies the consumer in parallel on the work-stealing pool, recursively splitting the list.
+     */
+    public static <T> void pEachForkJoin(List<T> objects, Consumer<T> function) {
+        pEachForkJoin(objects, function, ForkJoin.grainSize(objects.size(), Pools.cores()));
+    }
+
+    /**
+     * Applies the consumer in parallel on the work-stealing pool, splitting down to ranges of grainSize elements.
+     */
+    public static <T> void pEachForkJoin(List<T> objects, Consumer<T> function, int grainSize) {
+        List<T> inputs = indexed(objects);
+        forkJoin(() -> ForkJoin.forEach(
+            Pools.forkJoin(),
+            inputs.size(),
+            grainSize,
+            i -> function.accept(inputs.get(i))));
+    }
+
+    /**
+     * Reduces elements in parallel on the work-stealing pool.
+     * The operator must be associative and identity must be neutral for it.
+     */
+    public static <T> T pReduce(List<T> objects, T identity, BinaryOperator<T> operator) {
+        return pReduce(objects, identity, operator, operator);
+    }
+
+    // ==================== Parallel Aggregation ====================
+
+    /**
+     * Reduces elements in parallel: each leaf range folds its elements into a partial result
+     * starting from identity, and partial results are merged pairwise with the combiner.
+     * Identity must be neutral for the combiner and the combiner must be associative.
+     */
+    public static <T, U> U pReduce(
+        List<T> objects,
+        U identity,
+        BiFunction<U, T, U> accumulator,
+        BinaryOperator<U> combiner) {
+        List<T> inputs = indexed(objects);
+        return aggregate(
+            inputs,
+            (from, to) -> {
+                U acc = identity;
+                for (int i = from; i < to; i++)
+                    acc = accumulator.apply(acc, inputs.get(i));
+                return acc;
+            },
+            combiner);
+    }
+
+    /**
+     * Sums a long value extracted from each element, in parallel.
+     */
+    public static <T> long pSum(List<T> objects, ToLongFunction<T> extractor) {
+        List<T> inputs = indexed(objects);
+        return aggregate(
+            inputs,
+            (from, to) -> {
+                long sum = 0;
+                for (int i = from; i < to; i++)
+                    sum += extractor.applyAsLong(inputs.get(i));
+                return sum;
+            },
+            Long::sum);
+    }
+
+    /**
+     * Sums a double value extracted from each element, in parallel.
+     */
+    public static <T> double pSumDouble(List<T> objects, ToDoubleFunction<T> extractor) {
+        List<T> inputs = indexed(objects);
+        return aggregate(
+            inputs,
+            (from, to) -> {
+                double sum = 0;
+                for (int i = from; i < to; i++)
+                    sum += extractor.applyAsDouble(inputs.get(i));
+                return sum;
+            },
+            Double::sum);
+    }
+
+    /**
+     * Counts elements matching the predicate, in parallel.
+     */
+    public static <T> long pCount(List<T> objects, Predicate<T> predicate) {
+        List<T> inputs = indexed(objects);
+        return aggregate(
+            inputs,
+            (from, to) -> {
+                long count = 0;
+                for (int i = from; i < to; i++)
+                    if (predicate.test(inputs.get(i)))
+                        count++;
+                return count;
+            },
+            Long::sum);
+    }
+
+    /**
+     * Collects elements in parallel: each leaf range fills its own container,
+     * containers are merged pairwise with the collector's combiner, then finished once.
+     */
+    public static <T, A, R> R pCollect(List<T> objects, Collector<T, A, R> collector) {
+        List<T> inputs = indexed(objects);
+        A container = aggregate(
+            inputs,
+            (from, to) -> {
+                A acc = collector.supplier().get();
+                for (int i = from; i < to; i++)
+                    collector.accumulator().accept(acc, inputs.get(i));
+                return acc;
+            },
+            collector.combiner());
+        return collector.finisher().apply(container);
+    }
+
+    /**
+     * Groups elements by key in parallel. Each leaf range groups into its own map and
+     * maps are merged pairwise, so group lists keep encounter order.
+     */
+    public static <T, K> Map<K, List<T>> pGroupBy(List<T> objects, Function<T, K> keys) {
+        List<T> inputs = indexed(objects);
+        return aggregate(
+            inputs,
+            (from, to) -> {
+                Map<K, List<T>> groups = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    T obj = inputs.get(i);
+                    groups.computeIfAbsent(keys.apply(obj), k -> new ArrayList<>()).add(obj);
+                }
+                return groups;
+            },
+            (left, right) -> {
+                right.forEach((k, group) -> left.merge(k, group, (l, r) -> {
+                    l.addAll(r);
+                    return l;
+                }));
+                return left;
+            });
+    }
+
+    /**
+     * Counts elements per key in parallel.
+     */
+    public static <T, K> Map<K, Integer> pCounts(List<T> objects, Function<T, K> keys) {
+        return pSums(objects, keys, o -> 1);
+    }
+
+    /**
+     * Sums values per key in parallel. Each leaf range sums into its own primitive map and maps are merged pairwise.
+     */
+    public static <T, K> Map<K, Integer> pSums(
+        List<T> objects,
+        Function<T, K> keys,
+        Function<T, Integer> values) {
+        List<T> inputs = indexed(objects);
+        ObjectIntMap<K> sums = aggregate(
+            inputs,
+            (from, to) -> {
+                ObjectIntMap<K> leaf = new ObjectIntMap<>();
+                for (int i = from; i < to; i++) {
+                    T obj = inputs.get(i);
+                    leaf.addTo(keys.apply(obj), values.apply(obj));
+                }
+                return leaf;
+            },
+            (left, right) -> left.size() >= right.size() ? left.addAll(right) : right.addAll(left));
+        return sums.toMap();
+    }
+
+    /**
+     * Counts occurrences of each element in parallel.
+     */
+    public static <T> Map<T, Long> pFrequencies(List<T> objects) {
+        List<T> inputs = indexed(objects);
+        ObjectLongMap<T> frequencies = aggregate(
+            inputs,
+            (from, to) -> {
+                ObjectLongMap<T> leaf = new ObjectLongMap<>();
+                for (int i = from; i < to; i++)
+                    leaf.addTo(inputs.get(i), 1);
+                return leaf;
+            },
+            (left, right) -> left.size() >= right.size() ? left.addAll(right) : right.addAll(left));
+        return frequencies.toMap();
+    }
+
+    private static <T, R> R aggregate(
+        List<T> inputs,
+        ForkJoin.RangeFunction<R> leaf,
+        BinaryOperator<R> combiner) {
+        return forkJoin(() -> ForkJoin.reduce(
+            Pools.forkJoin(),
+            inputs.size(),
+            ForkJoin.grainSize(inputs.size(), Pools.cores()),
+            leaf,
+            combiner));
+    }
+
+    private static void forkJoin(Runnable runnable) {
+        forkJoin(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    private static <T> T forkJoin(Supplier<T> supplier) {
+        try {
+            return supplier.get();
+        } catch (RuntimeException | Error e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // ==================== Virtual Thread Execution ====================
+
+    /**
+     * Maps elements in parallel on virtual threads, with at most maxConcurrency calls in flight.
+     * Suits functions that mostly block on I/O.
+     */
+    public static <T, R> List<R> pMapVirtual(List<T> objects, Function<T, R> function, int maxConcurrency) {
+        List<T> inputs = indexed(objects);
+        Object[] results = new Object[inputs.size()];
+        execute(
+            results.length,
+            1,
+            i -> results[i] = function.apply(inputs.get(i)),
+            maxConcurrency,
+            Pools.virtual(),
+            false);
+        return results(results);
+    }
+
+    /**
+     * Applies the consumer in parallel on virtual threads, with at most maxConcurrency calls in flight.
+     */
+    public static <T> void pEachVirtual(List<T> objects, Consumer<T> function, int maxConcurrency) {
+        List<T> inputs = indexed(objects);
+        execute(inputs.size(), 1, i -> function.accept(inputs.get(i)), maxConcurrency, Pools.virtual(), false);
+    }
+
+    /**
+     * Runs the suppliers on virtual threads, with at most maxConcurrency in flight, and waits for all.
+     */
+    public static <T> List<T> awaitAllVirtual(List<Supplier<T>> suppliers, int maxConcurrency) {
+        return pMapVirtual(suppliers, Supplier::get, maxConcurrency);
+    }
+
+    /**
+     * Runs the suppliers concurrently on virtual threads and returns the first result.
+     */
+    @SafeVarargs
+    public static <T> T raceVirtual(Supplier<T>... suppliers) {
+        try {
+            List<java.util.concurrent.Callable<T>> callables =
+                map(list(suppliers), s -> (java.util.concurrent.Callable<T>) s::get);
+            return Pools.virtual().invokeAny(callables);
+        } catch (Exception e) {
+            throw new RuntimeException("Race execution failed", e);
+        }
+    }
+
+    // ==================== Adaptive Execution ====================
+
+    /**
+     * Maps elements in parallel on the blocking pool, letting a fresh adaptive limiter pick the concurrency.
+     */
+    public static <T, R> List<R> pMapAdaptive(List<T> objects, Function<T, R> function) {
+        return pMapAdaptive(objects, function, AdaptiveLimiter.create());
+    }
+
+    /**
+     * Maps elements in parallel on the blocking pool, with the number of calls in flight set by the limiter.
+     * Sharing a limiter between calls keeps what it learned about the downstream capacity.
+     */
+    public static <T, R> List<R> pMapAdaptive(List<T> objects, Function<T, R> function, AdaptiveLimiter limiter) {
+        List<T> inputs = indexed(objects);
+        Object[] results = new Object[inputs.size()];
+        executeAdaptive(results.length, i -> results[i] = function.apply(inputs.get(i)), limiter);
+        return results(results);
+    }
+
+    /**
+     * Applies the consumer in parallel on the blocking pool, letting a fresh adaptive limiter pick the concurrency.
+     */
+    public static <T> void pEachAdaptive(List<T> objects, Consumer<T> function) {
+        pEachAdaptive(objects, function, AdaptiveLimiter.create());
+    }
+
+    /**
+     * Applies the consumer in parallel on the blocking pool, with the number of calls in flight set by the limiter.
+     */
+    public static <T> void pEachAdaptive(List<T> objects, Consumer<T> function, AdaptiveLimiter limiter) {
+        List<T> inputs = indexed(objects);
+        executeAdaptive(inputs.size(), i -> function.accept(inputs.get(i)), limiter);
+    }
+
+    /**
+     * Submits task(0) .. task(count - 1) one at a time, each once the limiter admits it,
+     * so only admitted tasks occupy a thread. Stops submitting after the first failure.
+     * Submitted tasks are never cancelled, so each one returns its slot to the limiter.
+     */
+    private static void executeAdaptive(int count, IntConsumer task, AdaptiveLimiter limiter) {
+        CountDownLatch done = new CountDownLatch(count);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                if (failure.get() != null) {
+                    done.countDown();
+                    continue;
+                }
+                limiter.acquire();
+                int index = i;
+                try {
+                    Pools.blocking().execute(() -> {
+                        long start = System.nanoTime();
+                        boolean succeeded = false;
+                        try {
+                            task.accept(index);
+                            succeeded = true;
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            limiter.release(System.nanoTime() - start, succeeded);
+                            done.countDown();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    limiter.abandon();
+                    failure.compareAndSet(null, e);
+                    done.countDown();
+                }
+            }
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        if (failure.get() != null)
+            throw new RuntimeException(failure.get());
+    }
+
+    // ==================== Structured Concurrency ====================
+
+    /**
+     * Opens a scope for forking subtasks that are joined together and cancelled together on the first failure.
+     * Inside a subtask of another scope, the new scope inherits its deadline.
+     */
+    public static Scope scope() {
+        return Scope.open();
+    }
+
+    /**
+     * Opens a scope whose subtasks are cancelled when the timeout elapses.
+     */
+    public static Scope scope(Duration timeout) {
+        return Scope.open(timeout);
+    }
+
+    // ==================== Streaming Execution ====================
+
+    /**
+     * Maps a source lazily in parallel, keeping at most maxInFlight elements in flight.
+     * Results are emitted in source order; the source is only pulled as results are consumed.
+     */
+    public static <T, R> Iterator<R> pMap(Iterator<T> source, Function<T, R> function, int maxInFlight) {
+        return StreamingMap.ordered(source, function, Pools.forConcurrency(maxInFlight), maxInFlight);
+    }
+
+    /**
+     * Maps a stream lazily in parallel, keeping at most maxInFlight elements in flight.
+     * Results are emitted in source order. Closing the returned stream cancels in-flight elements.
+     */
+    public static <T, R> Stream<R> pMap(Stream<T> source, Function<T, R> function, int maxInFlight) {
+        return stream(
+            StreamingMap.ordered(source.iterator(), function, Pools.forConcurrency(maxInFlight), maxInFlight),
+            source,
+            Spliterator.ORDERED);
+    }
+
+    /**
+     * Maps a spliterator lazily in parallel, keeping at most maxInFlight elements in flight.
+     * Results are emitted in source order.
+     */
+    public static <T, R> Stream<R> pMap(Spliterator<T> source, Function<T, R> function, int maxInFlight) {
+        return pMap(StreamSupport.stream(source, false), function, maxInFlight);
+    }
+
+    /**
+     * Maps a source lazily in parallel, keeping at most maxInFlight elements in flight.
+     * Results are emitted as soon as they complete.
+     */
+    public static <T, R> Iterator<R> pMapUnordered(
+        Iterator<T> source,
+        Function<T, R> function,
+        int maxInFlight) {
+        return StreamingMap.unordered(source, function, Pools.forConcurrency(maxInFlight), maxInFlight);
+    }
+
+    /**
+     * Maps a stream lazily in parallel, keeping at most maxInFlight elements in flight.
+     * Results are emitted as soon as they complete. Closing the returned stream cancels in-flight elements.
+     */
+    public static <T, R> Stream<R> pMapUnordered(
+        Stream<T> source,
+        Function<T, R> function,
+        int maxInFlight) {
+        return stream(
+            StreamingMap.unordered(source.iterator(), function, Pools.forConcurrency(maxInFlight), maxInFlight),
+            source,
+            0);
+    }
+
+    private static <T, R> Stream<R> stream(StreamingMap<T, R> results, Stream<T> source, int characteristics) {
+        return StreamSupport
+            .stream(Spliterators.spliteratorUnknownSize(results, characteristics), false)
+            .onClose(results::close)
+            .onClose(source::close);
+    }
+
+    // ==================== Pool Statistics ====================
+
+    /**
+     * Returns queue depth, active workers, wait and run time histograms, rejections and steals
+     * of every pool currently in use, by pool name.
+     */
+    public static Map<String, PoolStats> poolStats() {
+        return Pools.stats();
     }
 
     // ==================== Timing & Execution Utilities ====================
@@ -130,12 +765,15 @@ public class Parallel {
 
     /**
      * Retries an operation with fixed delay between attempts.
+     * Stops at once if a circuit breaker or bulkhead rejects the call.
      */
     public static <T> T retry(Supplier<T> supplier, int maxAttempts, Duration delayBetweenAttempts) {
         Exception lastException = null;
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             try {
                 return supplier.get();
+            } catch (CallNotPermittedException e) {
+                throw e;
             } catch (Exception e) {
                 lastException = e;
                 if (attempt < maxAttempts) {
@@ -153,6 +791,7 @@ public class Parallel {
 
     /**
      * Retries an operation with exponential backoff.
+     * Stops at once if a circuit breaker or bulkhead rejects the call.
      */
     public static <T> T retryWithBackoff(
             Supplier<T> supplier,
@@ -164,6 +803,8 @@ public class Parallel {
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             try {
                 return supplier.get();
+            } catch (CallNotPermittedException e) {
+                throw e;
             } catch (Exception e) {
                 lastException = e;
                 if (attempt < maxAttempts) {
@@ -195,8 +836,7 @@ public class Parallel {
      * Returns empty Optional if timeout is exceeded.
      */
     public static <T> java.util.Optional<T> timeout(Supplier<T> supplier, Duration timeout) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        Future<T> future = executor.submit(supplier::get);
+        Future<T> future = Pools.blocking().submit(supplier::get);
         try {
             return java.util.Optional.ofNullable(future.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
         } catch (java.util.concurrent.TimeoutException e) {
@@ -205,7 +845,7 @@ public class Parallel {
         } catch (Exception e) {
             throw new RuntimeException("Error executing with timeout", e);
         } finally {
-            executor.shutdownNow();
+            future.cancel(true);
         }
     }
 
@@ -248,29 +888,48 @@ public class Parallel {
     }
 
     /**
-     * Runs a task periodically at a fixed rate.
+     * Runs a task periodically at a fixed rate. The shared scheduler keeps time and each run
+     * is handed to the blocking pool; a tick arriving while the previous run is still going is skipped.
+     * After a failed run no further runs happen and the returned future fails with the error.
      * Returns the scheduled future for cancellation.
      */
     public static java.util.concurrent.ScheduledFuture<?> schedule(
             Runnable task,
             Duration initialDelay,
             Duration period) {
-        java.util.concurrent.ScheduledExecutorService scheduler =
-            java.util.concurrent.Executors.newSingleThreadScheduledExecutor();
-        return scheduler.scheduleAtFixedRate(
-            task,
-            initialDelay.toMillis(),
-            period.toMillis(),
-            TimeUnit.MILLISECONDS);
+        java.util.concurrent.atomic.AtomicBoolean running = new java.util.concurrent.atomic.AtomicBoolean(false);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        return Pools.scheduler().scheduleAtFixedRate(
+            () -> {
+                Throwable error = failure.get();
+                if (error != null)
+                    throw new RuntimeException("Scheduled task failed", error);
+                if (!running.compareAndSet(false, true))
+                    return;
+                Pools.blocking().execute(() -> {
+                    try {
+                        task.run();
+                    } catch (Throwable e) {
+                        failure.set(e);
+                    } finally {
+                        running.set(false);
+                    }
+                });
+            },
+            initialDelay.toNanos(),
+            period.toNanos(),
+            TimeUnit.NANOSECONDS);
     }
 
     /**
-     * Runs a task once after a delay.
+     * Runs a task once after a delay. The shared scheduler keeps time and the task runs on the blocking pool.
+     * The returned future completes once the task is handed over, not when it finishes.
      */
     public static java.util.concurrent.ScheduledFuture<?> scheduleOnce(Runnable task, Duration delay) {
-        java.util.concurrent.ScheduledExecutorService scheduler =
-            java.util.concurrent.Executors.newSingleThreadScheduledExecutor();
-        return scheduler.schedule(task, delay.toMillis(), TimeUnit.MILLISECONDS);
+        return Pools.scheduler().schedule(
+            () -> Pools.blocking().execute(task),
+            delay.toNanos(),
+            TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -278,15 +937,33 @@ public class Parallel {
      */
     @SafeVarargs
     public static <T> T race(Supplier<T>... suppliers) {
-        ExecutorService executor = Executors.newFixedThreadPool(suppliers.length);
         try {
             List<java.util.concurrent.Callable<T>> callables =
                 map(list(suppliers), s -> (java.util.concurrent.Callable<T>) s::get);
-            return executor.invokeAny(callables);
+            return Pools.blocking().invokeAny(callables);
         } catch (Exception e) {
             throw new RuntimeException("Race execution failed", e);
-        } finally {
-            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs a hedged race: the first supplier starts at once and each following one is launched
+     * only if no answer has arrived after the hedge delay, or as soon as an attempt fails.
+     * Returns the first successful result and cancels the other attempts.
+     */
+    @SafeVarargs
+    public static <T> T race(Hedge hedge, Supplier<T>... suppliers) {
+        CompletableFuture<T> result = raceAsync(hedge, suppliers);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Race execution failed", e);
+        } catch (java.util.concurrent.ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException("Race execution failed", e.getCause());
         }
     }
 
@@ -302,25 +979,24 @@ public class Parallel {
      * Runs multiple suppliers concurrently and waits for all to complete.
      */
     public static <T> List<T> awaitAll(List<Supplier<T>> suppliers) {
-        return compute(suppliers, Runtime.getRuntime().availableProcessors());
+        return compute(suppliers, Pools.cores());
     }
 
     /**
-     * Runs multiple suppliers concurrently with a timeout.
-     * Returns results for completed tasks, empty for timed-out tasks.
+     * Runs multiple suppliers concurrently with a timeout shared by all of them.
+     * Returns results for completed tasks, empty for tasks still running at the deadline, which are cancelled.
      */
     public static <T> List<java.util.Optional<T>> awaitAll(
             List<Supplier<T>> suppliers,
             Duration timeout) {
-        ExecutorService executor = Executors.newFixedThreadPool(
-            Math.min(suppliers.size(), Runtime.getRuntime().availableProcessors()));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<Future<T>> futures = map(suppliers, s -> Pools.blocking().submit(s::get));
         try {
-            List<Future<T>> futures = map(suppliers, s -> executor.submit(s::get));
             List<java.util.Optional<T>> results = new java.util.ArrayList<>();
             for (Future<T> future : futures) {
                 try {
                     results.add(java.util.Optional.ofNullable(
-                        future.get(timeout.toMillis(), TimeUnit.MILLISECONDS)));
+                        future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)));
                 } catch (java.util.concurrent.TimeoutException e) {
                     future.cancel(true);
                     results.add(java.util.Optional.empty());
@@ -330,26 +1006,80 @@ public class Parallel {
         } catch (Exception e) {
             throw new RuntimeException("Await all failed", e);
         } finally {
-            executor.shutdownNow();
+            forEach(futures, f -> f.cancel(true));
+        }
+    }
+
+    /**
+     * Runs the suppliers concurrently and collects what finished within the timeout, which applies to the whole batch.
+     * Tasks still running at the deadline are cancelled. Never throws for a failing task.
+     */
+    public static <T> List<TaskResult<T>> gather(List<Supplier<T>> suppliers, Duration timeout) {
+        return gatherUntil(suppliers, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Runs the suppliers concurrently and collects what finished by the given instant.
+     */
+    public static <T> List<TaskResult<T>> gather(List<Supplier<T>> suppliers, java.time.Instant deadline) {
+        return gather(suppliers, Duration.between(java.time.Instant.now(), deadline));
+    }
+
+    private static <T> List<TaskResult<T>> gatherUntil(List<Supplier<T>> suppliers, long deadlineNanos) {
+        List<Future<T>> futures = map(suppliers, s -> Pools.blocking().submit(s::get));
+        List<TaskResult<T>> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                try {
+                    results.add(TaskResult.completed(
+                        future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)));
+                } catch (java.util.concurrent.ExecutionException e) {
+                    results.add(TaskResult.failed(e.getCause()));
+                } catch (java.util.concurrent.TimeoutException | java.util.concurrent.CancellationException e) {
+                    future.cancel(true);
+                    results.add(TaskResult.timedOut());
+                }
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Gather interrupted", e);
+        } finally {
+            forEach(futures, f -> f.cancel(true));
         }
     }
 
     /**
-     * Debounces a function - only executes after the specified quiet period.
+     * Runs the task repeatedly, pausing for the delay between the end of a run and the start of the next.
+     * Failed runs are skipped over; use PeriodicTask directly for jitter and error policies.
+     */
+    public static PeriodicTask fixedDelay(Runnable task, Duration delay) {
+        return PeriodicTask.fixedDelay(task, delay).start();
+    }
+
+    /**
+     * Runs the task once per period, never overlapping runs.
+     */
+    public static PeriodicTask fixedRate(Runnable task, Duration period) {
+        return PeriodicTask.fixedRate(task, period).start();
+    }
+
+    /**
+     * Debounces a function - only executes after the specified quiet period, on the blocking pool.
      * Returns a wrapper that should be called instead of the original function.
      */
     public static Runnable debounce(Runnable runnable, Duration quietPeriod) {
-        final java.util.concurrent.atomic.AtomicReference<java.util.concurrent.ScheduledFuture<?>> scheduled =
-            new java.util.concurrent.atomic.AtomicReference<>();
-        final java.util.concurrent.ScheduledExecutorService scheduler =
-            java.util.concurrent.Executors.newSingleThreadScheduledExecutor();
+        final AtomicReference<ScheduledFuture<?>> scheduled = new AtomicReference<>();
 
         return () -> {
-            java.util.concurrent.ScheduledFuture<?> prev = scheduled.get();
+            ScheduledFuture<?> prev = scheduled.getAndSet(
+                Pools.scheduler().schedule(
+                    () -> Pools.blocking().execute(runnable),
+                    quietPeriod.toNanos(),
+                    TimeUnit.NANOSECONDS));
             if (prev != null) {
                 prev.cancel(false);
             }
-            scheduled.set(scheduler.schedule(runnable, quietPeriod.toMillis(), TimeUnit.MILLISECONDS));
         };
     }
 
@@ -358,15 +1088,347 @@ public class Parallel {
      * Returns a wrapper that should be called instead of the original function.
      */
     public static Runnable throttle(Runnable runnable, Duration interval) {
+        final long intervalNanos = interval.toNanos();
         final java.util.concurrent.atomic.AtomicLong lastRun =
-            new java.util.concurrent.atomic.AtomicLong(0);
+            new java.util.concurrent.atomic.AtomicLong(System.nanoTime() - intervalNanos);
 
         return () -> {
-            long now = System.currentTimeMillis();
-            if (now - lastRun.get() >= interval.toMillis()) {
-                lastRun.set(now);
+            long now = System.nanoTime();
+            long last = lastRun.get();
+            if (now - last >= intervalNanos && lastRun.compareAndSet(last, now)) {
                 runnable.run();
             }
         };
     }
+
+    /**
+     * Coalesces calls into batches: items passed within the window, or up to maxBatchSize items,
+     * reach the consumer in a single call. Close the returned batcher to deliver the last batch.
+     */
+    public static <T> Batcher<T> batch(Consumer<List<T>> consumer, Duration window, int maxBatchSize) {
+        return Batcher.of(consumer, window, maxBatchSize);
+    }
+
+    /**
+     * Coalesces calls into batches per key, each key having its own window and size limit.
+     */
+    public static <T, K> Batcher<T> batchByKey(
+        Function<T, K> keys,
+        BiConsumer<K, List<T>> consumer,
+        Duration window,
+        int maxBatchSize) {
+        return Batcher.byKey(keys, consumer, window, maxBatchSize);
+    }
+
+    // ==================== Rate Limiting ====================
+
+    /**
+     * Creates a rate limiter spacing permits evenly.
+     */
+    public static RateLimiter rateLimiter(double permitsPerSecond) {
+        return RateLimiter.smooth(permitsPerSecond);
+    }
+
+    /**
+     * Creates a rate limiter allowing bursts of up to maxBurst permits.
+     */
+    public static RateLimiter rateLimiter(double permitsPerSecond, int maxBurst) {
+        return RateLimiter.bursty(permitsPerSecond, maxBurst);
+    }
+
+    /**
+     * Limits calls to a supplier to the given rate. Unlike throttle, calls wait for a permit instead of being dropped.
+     */
+    public static <T> Supplier<T> rateLimit(Supplier<T> supplier, double permitsPerSecond) {
+        return rateLimiter(permitsPerSecond).limit(supplier);
+    }
+
+    /**
+     * Limits calls to a function to the given rate. Calls wait for a permit instead of being dropped.
+     */
+    public static <T, R> Function<T, R> rateLimit(Function<T, R> function, double permitsPerSecond) {
+        return rateLimiter(permitsPerSecond).limit(function);
+    }
+
+    /**
+     * Limits calls to a runnable to the given rate. Calls wait for a permit instead of being dropped.
+     */
+    public static Runnable rateLimit(Runnable runnable, double permitsPerSecond) {
+        return rateLimiter(permitsPerSecond).limit(runnable);
+    }
+
+    // ==================== Resilience ====================
+
+    /**
+     * Creates a circuit breaker opening when the failure rate over the last windowSize calls reaches the threshold,
+     * and letting a trial call through after openDuration. Retries give up as soon as the breaker rejects a call.
+     */
+    public static CircuitBreaker circuitBreaker(double failureRateThreshold, int windowSize, Duration openDuration) {
+        return CircuitBreaker.of(failureRateThreshold, windowSize, openDuration);
+    }
+
+    /**
+     * Creates a bulkhead rejecting calls beyond maxConcurrentCalls instead of queueing them.
+     */
+    public static Bulkhead bulkhead(int maxConcurrentCalls) {
+        return Bulkhead.of(maxConcurrentCalls);
+    }
+
+    // ==================== Async Utilities ====================
+
+    /**
+     * Runs a supplier on the blocking pool.
+     * Cancelling the returned future interrupts the supplier.
+     */
+    public static <T> CompletableFuture<T> async(Supplier<T> supplier) {
+        return async(supplier, Pools.blocking());
+    }
+
+    /**
+     * Runs a supplier on the given executor.
+     * Cancelling the returned future interrupts the supplier.
+     */
+    public static <T> CompletableFuture<T> async(Supplier<T> supplier, ExecutorService executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            Future<?> task = executor.submit(() -> {
+                try {
+                    result.complete(supplier.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            result.whenComplete((r, e) -> {
+                if (result.isCancelled())
+                    task.cancel(true);
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Executes a supplier with a timeout without blocking the caller.
+     * Completes with an empty Optional if the timeout is exceeded, in which case the supplier is interrupted.
+     */
+    public static <T> CompletableFuture<java.util.Optional<T>> timeoutAsync(Supplier<T> supplier, Duration timeout) {
+        CompletableFuture<T> task = async(supplier);
+        CompletableFuture<java.util.Optional<T>> result = task.thenApply(java.util.Optional::ofNullable);
+        ScheduledFuture<?> timer = Pools.scheduler().schedule(
+            () -> {
+                if (result.complete(java.util.Optional.empty()))
+                    task.cancel(true);
+            },
+            timeout.toNanos(),
+            TimeUnit.NANOSECONDS);
+        result.whenComplete((r, e) -> {
+            timer.cancel(false);
+            if (result.isCancelled())
+                task.cancel(true);
+        });
+        return result;
+    }
+
+    /**
+     * Runs multiple suppliers concurrently and completes with the first successful result.
+     * Remaining suppliers are cancelled. Fails only if every supplier fails.
+     */
+    @SafeVarargs
+    public static <T> CompletableFuture<T> raceAsync(Supplier<T>... suppliers) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (suppliers.length == 0) {
+            result.completeExceptionally(new IllegalArgumentException("No suppliers to race"));
+            return result;
+        }
+        AtomicInteger failures = new AtomicInteger(0);
+        List<CompletableFuture<T>> tasks = map(list(suppliers), s -> async(s));
+        forEach(tasks, task -> task.whenComplete((value, error) -> {
+            if (error == null)
+                result.complete(value);
+            else if (failures.incrementAndGet() == suppliers.length)
+                result.completeExceptionally(new RuntimeException("Race execution failed", error));
+        }));
+        result.whenComplete((r, e) -> forEach(tasks, task -> task.cancel(true)));
+        return result;
+    }
+
+    /**
+     * Runs a hedged race asynchronously, launching backups on the shared scheduler.
+     * Attempts run on the blocking pool; once the race is decided the losers are cancelled,
+     * which interrupts their suppliers. Fails with a RuntimeException wrapping the last error
+     * if every attempt fails, like raceAsync without a hedge.
+     */
+    @SafeVarargs
+    public static <T> CompletableFuture<T> raceAsync(Hedge hedge, Supplier<T>... suppliers) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (suppliers.length == 0) {
+            result.completeExceptionally(new IllegalArgumentException("No suppliers to race"));
+            return result;
+        }
+        HedgedRace<T> race = new HedgedRace<>(hedge, suppliers, result);
+        result.whenComplete((r, e) -> race.cancelAll());
+        race.launch();
+        return result;
+    }
+
+    /**
+     * Runs multiple suppliers concurrently and completes with all results, in order.
+     * The first failure cancels the remaining suppliers.
+     */
+    public static <T> CompletableFuture<List<T>> awaitAllAsync(List<Supplier<T>> suppliers) {
+        List<CompletableFuture<T>> tasks = map(suppliers, s -> async(s));
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        CompletableFuture
+            .allOf(tasks.toArray(new CompletableFuture<?>[0]))
+            .whenComplete((r, e) -> {
+                if (e == null)
+                    result.complete(map(tasks, CompletableFuture::join));
+            });
+        forEach(tasks, task -> task.whenComplete((value, error) -> {
+            if (error != null)
+                result.completeExceptionally(error);
+        }));
+        result.whenComplete((r, e) -> {
+            if (e != null)
+                forEach(tasks, task -> task.cancel(true));
+        });
+        return result;
+    }
+
+    /**
+     * Retries an operation with fixed delay between attempts, without parking a thread between attempts.
+     */
+    public static <T> CompletableFuture<T> retryAsync(
+            Supplier<T> supplier,
+            int maxAttempts,
+            Duration delayBetweenAttempts) {
+        return retryWithBackoffAsync(supplier, maxAttempts, delayBetweenAttempts, 1.0);
+    }
+
+    /**
+     * Retries an operation with exponential backoff, without parking a thread between attempts.
+     * Attempts run on the blocking pool and are re-triggered by the shared scheduler.
+     */
+    public static <T> CompletableFuture<T> retryWithBackoffAsync(
+            Supplier<T> supplier,
+            int maxAttempts,
+            Duration initialDelay,
+            double multiplier) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<Future<?>> current = new AtomicReference<>();
+        result.whenComplete((r, e) -> {
+            Future<?> f = current.get();
+            if (result.isCancelled() && f != null)
+                f.cancel(true);
+        });
+        attemptAsync(supplier, 1, maxAttempts, initialDelay.toNanos(), multiplier, result, current);
+        return result;
+    }
+
+    /**
+     * State of one hedged race. A single backup timer is pending at a time: a failed attempt
+     * takes it over to launch the next attempt at once, so failures never make backups pile up.
+     * The latency recorded for the hedge is measured from the start of the race, so a backup winning
+     * does not hide the delay spent before it was launched.
+     */
+    private static class HedgedRace<T> {
+
+        private final Hedge hedge;
+        private final long start = System.nanoTime();
+        private final Supplier<T>[] suppliers;
+        private final CompletableFuture<T> result;
+        private final List<Future<?>> attempts = new java.util.concurrent.CopyOnWriteArrayList<>();
+        private final AtomicReference<ScheduledFuture<?>> timer = new AtomicReference<>();
+        private final AtomicInteger launched = new AtomicInteger(0);
+        private final AtomicInteger failures = new AtomicInteger(0);
+
+        HedgedRace(Hedge hedge, Supplier<T>[] suppliers, CompletableFuture<T> result) {
+            this.hedge = hedge;
+            this.suppliers = suppliers;
+            this.result = result;
+        }
+
+        /**
+         * Launches the next attempt and arms the timer for the one after it.
+         */
+        void launch() {
+            int index = launched.getAndIncrement();
+            if (index >= suppliers.length || result.isDone())
+                return;
+            // armed before the attempt can fail, so that a failure takes over this timer
+            if (index + 1 < suppliers.length) {
+                ScheduledFuture<?> previous = timer.getAndSet(
+                    Pools.scheduler().schedule(this::launch, hedge.delayNanos(), TimeUnit.NANOSECONDS));
+                if (previous != null)
+                    previous.cancel(false);
+            }
+            CompletableFuture<T> attempt = async(suppliers[index]);
+            attempts.add(attempt);
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    hedge.record(System.nanoTime() - start);
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == suppliers.length) {
+                    result.completeExceptionally(new RuntimeException("Race execution failed", error));
+                } else {
+                    launchNow();
+                }
+            });
+            if (result.isDone())
+                cancelAll();
+        }
+
+        /**
+         * Launches the next attempt ahead of the timer, unless the timer is already firing.
+         */
+        private void launchNow() {
+            ScheduledFuture<?> pending = timer.getAndSet(null);
+            if (pending == null || pending.cancel(false))
+                launch();
+        }
+
+        void cancelAll() {
+            ScheduledFuture<?> pending = timer.getAndSet(null);
+            if (pending != null)
+                pending.cancel(false);
+            forEach(attempts, attempt -> attempt.cancel(true));
+        }
+    }
+
+    private static <T> void attemptAsync(
+            Supplier<T> supplier,
+            int attempt,
+            int maxAttempts,
+            long delayNanos,
+            double multiplier,
+            CompletableFuture<T> result,
+            AtomicReference<Future<?>> current) {
+        if (result.isDone())
+            return;
+        CompletableFuture<T> task = async(supplier);
+        current.set(task);
+        task.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+            } else if (error instanceof CallNotPermittedException) {
+                result.completeExceptionally(error);
+            } else if (attempt >= maxAttempts) {
+                result.completeExceptionally(
+                    new RuntimeException("All " + maxAttempts + " attempts failed", error));
+            } else if (!result.isDone()) {
+                current.set(Pools.scheduler().schedule(
+                    () -> attemptAsync(
+                        supplier,
+                        attempt + 1,
+                        maxAttempts,
+                        (long) (delayNanos * multiplier),
+                        multiplier,
+                        result,
+                        current),
+                    delayNanos,
+                    TimeUnit.NANOSECONDS));
+            }
+        });
+    }
 }
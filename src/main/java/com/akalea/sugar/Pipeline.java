@@ -0,0 +1,333 @@
+package com.akalea.sugar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.akalea.sugar.internal.Pools;
+
+/**
+ * A staged processing pipeline where every stage runs concurrently with the others.
+ * Each stage has its own concurrency level and a bounded input queue, so a slow stage
+ * throttles the stages feeding it while the remaining stages keep working.
+ * With a concurrency above one, a stage emits elements in completion order.
+ *
+ * <pre>
+ * Pipeline.from(lines)
+ *     .map(Record::parse, 4)
+ *     .map(this::enrich, 32)
+ *     .batch(500)
+ *     .forEach(this::write);
+ * </pre>
+ */
+public class Pipeline<T> {
+
+    public static final int DEFAULT_QUEUE_SIZE = 128;
+
+    private static final Object END = new Object();
+    private static final Object FAILED = new Object();
+
+    private final Supplier<Iterator<?>> source;
+    private final Runnable closeSource;
+    private final List<Stage> stages;
+
+    private Pipeline(Supplier<Iterator<?>> source, Runnable closeSource, List<Stage> stages) {
+        this.source = source;
+        this.closeSource = closeSource;
+        this.stages = stages;
+    }
+
+    // ==================== Sources ====================
+
+    /**
+     * Creates a pipeline reading from an iterator. The iterator is consumed by a single feeder thread.
+     */
+    public static <T> Pipeline<T> from(Iterator<T> source) {
+        return new Pipeline<>(() -> source, () -> {
+        }, new ArrayList<>());
+    }
+
+    /**
+     * Creates a pipeline reading from a collection.
+     */
+    public static <T> Pipeline<T> from(Collection<T> source) {
+        return new Pipeline<>(source::iterator, () -> {
+        }, new ArrayList<>());
+    }
+
+    /**
+     * Creates a pipeline reading from a stream. The stream is closed once the run is done reading it.
+     */
+    public static <T> Pipeline<T> from(Stream<T> source) {
+        return new Pipeline<>(source::iterator, source::close, new ArrayList<>());
+    }
+
+    // ==================== Stages ====================
+
+    /**
+     * Adds a single-threaded mapping stage.
+     */
+    public <R> Pipeline<R> map(Function<T, R> function) {
+        return map(function, 1);
+    }
+
+    /**
+     * Adds a mapping stage run by the given number of workers.
+     */
+    public <R> Pipeline<R> map(Function<T, R> function, int concurrency) {
+        return map(function, concurrency, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * Adds a mapping stage run by the given number of workers, reading from a queue of the given capacity.
+     */
+    public <R> Pipeline<R> map(Function<T, R> function, int concurrency, int queueSize) {
+        return then(new Stage(concurrency, queueSize, () -> (item, emit) -> emit.accept(function.apply(cast(item)))));
+    }
+
+    /**
+     * Adds a stage mapping each element to several elements.
+     */
+    public <R> Pipeline<R> flatMap(Function<T, Collection<R>> function, int concurrency) {
+        return then(new Stage(concurrency, DEFAULT_QUEUE_SIZE, () -> (item, emit) -> {
+            Collection<R> results = function.apply(cast(item));
+            if (results != null)
+                results.forEach(emit);
+        }));
+    }
+
+    /**
+     * Adds a stage keeping elements matching the predicate.
+     */
+    public Pipeline<T> filter(Predicate<T> predicate, int concurrency) {
+        return then(new Stage(concurrency, DEFAULT_QUEUE_SIZE, () -> (item, emit) -> {
+            if (predicate.test(cast(item)))
+                emit.accept(item);
+        }));
+    }
+
+    /**
+     * Adds a stage grouping elements into lists of the given size. The last batch may be smaller.
+     */
+    public Pipeline<List<T>> batch(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Batch size must be positive");
+        return then(new Stage(1, DEFAULT_QUEUE_SIZE, () -> new StageLogic() {
+            private List<Object> buffer = new ArrayList<>(size);
+
+            @Override
+            public void accept(Object item, Consumer<Object> emit) {
+                buffer.add(item);
+                if (buffer.size() >= size) {
+                    emit.accept(buffer);
+                    buffer = new ArrayList<>(size);
+                }
+            }
+
+            @Override
+            public void finish(Consumer<Object> emit) {
+                if (!buffer.isEmpty())
+                    emit.accept(buffer);
+            }
+        }));
+    }
+
+    // ==================== Terminals ====================
+
+    /**
+     * Runs the pipeline and passes every output element to the consumer on the calling thread.
+     */
+    public void forEach(Consumer<T> consumer) {
+        new Run(DEFAULT_QUEUE_SIZE).drain(consumer);
+    }
+
+    /**
+     * Runs the pipeline and collects output elements.
+     */
+    public List<T> toList() {
+        List<T> results = new ArrayList<>();
+        forEach(results::add);
+        return results;
+    }
+
+    /**
+     * Runs the pipeline, discarding output elements. Returns the number of output elements.
+     */
+    public long run() {
+        long[] count = {0};
+        forEach(e -> count[0]++);
+        return count[0];
+    }
+
+    private <R> Pipeline<R> then(Stage stage) {
+        List<Stage> next = new ArrayList<>(stages);
+        next.add(stage);
+        return new Pipeline<>(source, closeSource, next);
+    }
+
+    /**
+     * Processing logic of a stage, shared by its workers during one run.
+     */
+    @FunctionalInterface
+    private interface StageLogic {
+
+        void accept(Object item, Consumer<Object> emit);
+
+        default void finish(Consumer<Object> emit) {
+        }
+    }
+
+    private static class Stage {
+
+        final int concurrency;
+        final int queueSize;
+        final Supplier<StageLogic> logic;
+
+        Stage(int concurrency, int queueSize, Supplier<StageLogic> logic) {
+            if (concurrency <= 0 || queueSize <= 0)
+                throw new IllegalArgumentException("Concurrency and queue size must be positive");
+            this.concurrency = concurrency;
+            this.queueSize = queueSize;
+            this.logic = logic;
+        }
+    }
+
+    /**
+     * State of one pipeline execution: a queue in front of each stage plus the output queue.
+     */
+    private class Run {
+
+        private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+        private final List<Future<?>> workers = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final ExecutorService executor = Pools.blocking();
+
+        Run(int outputSize) {
+            for (Stage stage : stages)
+                queues.add(new ArrayBlockingQueue<>(stage.queueSize));
+            queues.add(new ArrayBlockingQueue<>(outputSize));
+        }
+
+        void drain(Consumer<T> consumer) {
+            try {
+                start();
+                BlockingQueue<Object> output = queues.get(queues.size() - 1);
+                while (true) {
+                    Object item = output.take();
+                    if (failure.get() != null)
+                        throw new RuntimeException(failure.get());
+                    if (item == END)
+                        return;
+                    consumer.accept(cast(item));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Pipeline interrupted", e);
+            } finally {
+                workers.forEach(f -> f.cancel(true));
+            }
+        }
+
+        private void start() {
+            workers.add(executor.submit(() -> guarded(() -> {
+                // closed by the feeder so that the source is never closed while being read
+                try {
+                    Iterator<?> it = source.get();
+                    BlockingQueue<Object> first = queues.get(0);
+                    while (it.hasNext())
+                        first.put(it.next());
+                    first.put(END);
+                } finally {
+                    closeSource.run();
+                }
+            })));
+            for (int s = 0; s < stages.size(); s++) {
+                Stage stage = stages.get(s);
+                BlockingQueue<Object> in = queues.get(s);
+                BlockingQueue<Object> out = queues.get(s + 1);
+                StageLogic logic = stage.logic.get();
+                AtomicInteger live = new AtomicInteger(stage.concurrency);
+                for (int w = 0; w < stage.concurrency; w++)
+                    workers.add(executor.submit(() -> guarded(() -> work(logic, in, out, live))));
+            }
+        }
+
+        private void work(
+            StageLogic logic,
+            BlockingQueue<Object> in,
+            BlockingQueue<Object> out,
+            AtomicInteger live) throws InterruptedException {
+            Consumer<Object> emit = item -> {
+                try {
+                    out.put(item);
+                } catch (InterruptedException e) {
+                    throw new PipelineInterrupted();
+                }
+            };
+            while (true) {
+                Object item = in.take();
+                if (item == END) {
+                    in.put(END);
+                    if (live.decrementAndGet() == 0) {
+                        logic.finish(emit);
+                        out.put(END);
+                    }
+                    return;
+                }
+                logic.accept(item, emit);
+            }
+        }
+
+        private void guarded(InterruptibleRunnable runnable) {
+            try {
+                runnable.run();
+            } catch (InterruptedException | PipelineInterrupted e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e))
+                    wakeConsumer();
+            }
+        }
+
+        /**
+         * Wakes the consumer waiting on the output queue so that it reports the failure without delay.
+         */
+        private void wakeConsumer() {
+            try {
+                queues.get(queues.size() - 1).put(FAILED);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Items travel between stages untyped; a stage only receives what the stage before it emitted as T.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> E cast(Object item) {
+        return (E) item;
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleRunnable {
+        void run() throws InterruptedException;
+    }
+
+    private static class PipelineInterrupted extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
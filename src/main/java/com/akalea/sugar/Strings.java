@@ -10,6 +10,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
+import com.akalea.sugar.internal.IntList;
+
 public interface Strings {
 
     public static boolean isEmpty(String str) {
@@ -328,6 +330,21 @@ public interface Strings {
         return indexes;
     }
 
+    /**
+     * Same as findAllIndexes, stored in an IntList without boxing.
+     */
+    public static IntList indexesOf(String str, String search) {
+        IntList indexes = new IntList();
+        if (isEmpty(str) || isEmpty(search))
+            return indexes;
+        int idx = 0;
+        while ((idx = str.indexOf(search, idx)) != -1) {
+            indexes.add(idx);
+            idx += search.length();
+        }
+        return indexes;
+    }
+
     public static String defaultIfEmpty(String str, String defaultValue) {
         return isEmpty(str) ? defaultValue : str;
     }
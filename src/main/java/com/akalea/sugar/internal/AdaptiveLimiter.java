@@ -0,0 +1,223 @@
+package com.akalea.sugar.internal;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A concurrency limit tuned from observed latency, using additive increase / multiplicative decrease.
+ * While calls complete close to the lowest recently observed latency, the limit grows by one per
+ * limit's worth of completions. A call slower than tolerance times that latency, or a failed call,
+ * shrinks the limit by the backoff ratio, at most once per round trip: calls that started before the
+ * previous decrease belong to the same congestion episode and do not shrink it again.
+ * The baseline latency is the minimum over the last two windows of samples, so it follows slow
+ * drifts of the downstream service.
+ */
+public class AdaptiveLimiter {
+
+    private static final int BASELINE_WINDOW = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight = 0;
+    private long previousWindowMin = Long.MAX_VALUE;
+    private long currentWindowMin = Long.MAX_VALUE;
+    private int samples = 0;
+    private boolean decreased = false;
+    private long lastDecreaseNanos;
+
+    private AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        if (minLimit <= 0 || maxLimit < minLimit)
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= max");
+        if (tolerance <= 1)
+            throw new IllegalArgumentException("Tolerance must be greater than 1");
+        if (backoffRatio <= 0 || backoffRatio >= 1)
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Creates a limiter starting at the given limit and staying within [minLimit, maxLimit].
+     * A call more than twice as slow as the baseline reduces the limit by 10%.
+     */
+    public static AdaptiveLimiter of(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, 2.0, 0.9);
+    }
+
+    /**
+     * Creates a limiter with a custom latency tolerance and backoff ratio.
+     */
+    public static AdaptiveLimiter of(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        return new AdaptiveLimiter(initialLimit, minLimit, maxLimit, tolerance, backoffRatio);
+    }
+
+    /**
+     * Creates a limiter starting at the number of cores, between 1 and 1000.
+     */
+    public static AdaptiveLimiter create() {
+        return of(Pools.cores(), 1, 1000);
+    }
+
+    // ==================== Acquisition ====================
+
+    /**
+     * Waits until a call can start under the current limit.
+     * Every acquire must be followed by a release.
+     */
+    public void acquire() {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit)
+                released.await();
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Adaptive limiter interrupted", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of a call started with acquire and adjusts the limit.
+     */
+    public void release(long latencyNanos, boolean succeeded) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight >= (int) limit;
+            inFlight--;
+            long baseline = record(latencyNanos);
+            if (!succeeded || latencyNanos > baseline * tolerance)
+                decrease(latencyNanos);
+            else if (saturated)
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the slot of a call that never ran, leaving the limit and the baseline unchanged.
+     */
+    public void abandon() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs a supplier under the limit, timing it to adjust the limit.
+     * Exceptions count as failures and are rethrown.
+     */
+    public <T> T call(Supplier<T> supplier) {
+        acquire();
+        long start = System.nanoTime();
+        Timed<T> timed;
+        try {
+            timed = Timed.ofNano(supplier);
+        } catch (RuntimeException | Error e) {
+            release(System.nanoTime() - start, false);
+            throw e;
+        }
+        release(timed.getNanos(), true);
+        return timed.getValue();
+    }
+
+    /**
+     * Runs a runnable under the limit.
+     */
+    public void run(Runnable runnable) {
+        call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    // ==================== State ====================
+
+    /**
+     * Returns the current concurrency limit.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls currently running.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the baseline latency calls are compared against, or null before the first sample.
+     */
+    public Duration getBaselineLatency() {
+        lock.lock();
+        try {
+            long baseline = Math.min(previousWindowMin, currentWindowMin);
+            return baseline == Long.MAX_VALUE ? null : Duration.ofNanos(baseline);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    private void decrease(long latencyNanos) {
+        long now = System.nanoTime();
+        if (decreased && now - latencyNanos - lastDecreaseNanos < 0)
+            return;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        decreased = true;
+        lastDecreaseNanos = now;
+    }
+
+    private long record(long latencyNanos) {
+        currentWindowMin = Math.min(currentWindowMin, Math.max(1, latencyNanos));
+        if (++samples >= BASELINE_WINDOW) {
+            previousWindowMin = currentWindowMin;
+            currentWindowMin = Long.MAX_VALUE;
+            samples = 0;
+        }
+        return Math.min(previousWindowMin, currentWindowMin);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveLimiter{limit=" + getLimit() + ", inFlight=" + getInFlight() + "}";
+    }
+}
@@ -0,0 +1,200 @@
+package com.akalea.sugar.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Coalesces individual items into batches handed to a single consumer call.
+ * A batch is delivered when it reaches the maximum size, on the calling thread,
+ * or when the window opened by its first item elapses, on the blocking pool.
+ * Items can be grouped by key, each key collecting its own batches.
+ * Batches of different keys, or successive batches of a key, may be delivered concurrently.
+ * A consumer failing on the calling thread throws to the caller; a failure in the background
+ * goes to the error handler, by default the uncaught exception handler of the delivering thread.
+ */
+public class Batcher<T> implements Consumer<T>, AutoCloseable {
+
+    private static final Object NO_KEY = new Object();
+
+    private final Function<T, ?> keys;
+    private final BiConsumer<Object, List<T>> consumer;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Map<Object, Buffer> buffers = new HashMap<>();
+    private volatile Consumer<Throwable> errorHandler = Batcher::reportUncaught;
+    private boolean closed = false;
+
+    private Batcher(Function<T, ?> keys, BiConsumer<Object, List<T>> consumer, Duration window, int maxBatchSize) {
+        if (maxBatchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be positive");
+        if (window.isNegative() || window.isZero())
+            throw new IllegalArgumentException("Window must be positive");
+        this.keys = keys;
+        this.consumer = consumer;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Creates a batcher delivering items collected within the window, or up to maxBatchSize items, to the consumer.
+     */
+    public static <T> Batcher<T> of(Consumer<List<T>> consumer, Duration window, int maxBatchSize) {
+        return new Batcher<>(t -> NO_KEY, (key, batch) -> consumer.accept(batch), window, maxBatchSize);
+    }
+
+    /**
+     * Creates a batcher collecting a separate batch per key.
+     */
+    @SuppressWarnings("unchecked") // keys of this batcher all come from the K-typed key function
+    public static <T, K> Batcher<T> byKey(
+        Function<T, K> keys,
+        BiConsumer<K, List<T>> consumer,
+        Duration window,
+        int maxBatchSize) {
+        return new Batcher<>(keys, (key, batch) -> consumer.accept((K) key, batch), window, maxBatchSize);
+    }
+
+    /**
+     * Sets the handler receiving exceptions thrown by the consumer for batches delivered in the background,
+     * or a rejected hand-off of such a batch to the blocking pool.
+     */
+    public Batcher<T> onError(Consumer<Throwable> handler) {
+        this.errorHandler = handler;
+        return this;
+    }
+
+    /**
+     * Adds an item to the batch of its key. Delivers the batch on the calling thread if it is full.
+     */
+    @Override
+    public void accept(T item) {
+        Object key = keys.apply(item);
+        Buffer full = null;
+        synchronized (buffers) {
+            if (closed)
+                throw new IllegalStateException("Batcher is closed");
+            Buffer buffer = buffers.get(key);
+            if (buffer == null) {
+                buffer = new Buffer(key);
+                buffers.put(key, buffer);
+            }
+            buffer.items.add(item);
+            if (buffer.items.size() >= maxBatchSize) {
+                buffers.remove(key);
+                if (buffer.timer != null)
+                    buffer.timer.cancel(false);
+                full = buffer;
+            } else if (buffer.timer == null) {
+                Buffer expiring = buffer;
+                buffer.timer = Pools.scheduler().schedule(
+                    () -> dispatch(expiring),
+                    windowNanos,
+                    TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null)
+            deliver(full);
+    }
+
+    /**
+     * Delivers all pending batches on the calling thread.
+     */
+    public void flush() {
+        List<Buffer> pending;
+        synchronized (buffers) {
+            pending = new ArrayList<>(buffers.values());
+            buffers.clear();
+        }
+        for (Buffer buffer : pending) {
+            if (buffer.timer != null)
+                buffer.timer.cancel(false);
+            deliver(buffer);
+        }
+    }
+
+    /**
+     * Returns the number of items waiting to be delivered.
+     */
+    public int pending() {
+        synchronized (buffers) {
+            int count = 0;
+            for (Buffer buffer : buffers.values())
+                count += buffer.items.size();
+            return count;
+        }
+    }
+
+    /**
+     * Rejects further items and delivers all pending batches.
+     */
+    @Override
+    public void close() {
+        synchronized (buffers) {
+            closed = true;
+        }
+        flush();
+    }
+
+    /**
+     * Hands an expired batch from the timer to the blocking pool.
+     */
+    private void dispatch(Buffer buffer) {
+        try {
+            Pools.blocking().execute(() -> {
+                try {
+                    expire(buffer);
+                } catch (Throwable e) {
+                    report(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            report(e);
+        }
+    }
+
+    private void expire(Buffer buffer) {
+        synchronized (buffers) {
+            if (buffers.get(buffer.key) != buffer)
+                return;
+            buffers.remove(buffer.key);
+        }
+        deliver(buffer);
+    }
+
+    private void report(Throwable e) {
+        try {
+            errorHandler.accept(e);
+        } catch (RuntimeException handlerError) {
+            // a failing handler must not take the pool thread down
+        }
+    }
+
+    private static void reportUncaught(Throwable e) {
+        Thread current = Thread.currentThread();
+        current.getUncaughtExceptionHandler().uncaughtException(current, e);
+    }
+
+    private void deliver(Buffer buffer) {
+        consumer.accept(buffer.key, buffer.items);
+    }
+
+    private class Buffer {
+
+        final Object key;
+        final List<T> items = new ArrayList<>();
+        ScheduledFuture<?> timer;
+
+        Buffer(Object key) {
+            this.key = key;
+        }
+    }
+}
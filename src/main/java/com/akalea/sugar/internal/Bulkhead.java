@@ -0,0 +1,128 @@
+package com.akalea.sugar.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of concurrent calls to a dependency.
+ * Calls over the limit are rejected immediately with FullException rather than queued,
+ * so a degraded dependency cannot pile up waiting threads. The count is a single atomic integer.
+ */
+public class Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    private Bulkhead(int maxConcurrentCalls) {
+        if (maxConcurrentCalls <= 0)
+            throw new IllegalArgumentException("Max concurrent calls must be positive");
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * Creates a bulkhead allowing at most maxConcurrentCalls calls at once.
+     */
+    public static Bulkhead of(int maxConcurrentCalls) {
+        return new Bulkhead(maxConcurrentCalls);
+    }
+
+    /**
+     * Takes a slot if one is free. Every successful tryAcquire must be followed by a release.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrentCalls)
+                return false;
+            if (inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    /**
+     * Returns a slot taken by tryAcquire.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Runs the supplier if a slot is free, throws FullException otherwise.
+     */
+    public <T> T call(Supplier<T> supplier) {
+        if (!tryAcquire())
+            throw new FullException(maxConcurrentCalls);
+        try {
+            return supplier.get();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Runs the runnable if a slot is free, throws FullException otherwise.
+     */
+    public void run(Runnable runnable) {
+        call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the supplier through the bulkhead, capturing failures and rejections in a Try.
+     */
+    public <T> Try<T> tryCall(Supplier<T> supplier) {
+        return Try.of(() -> call(supplier));
+    }
+
+    /**
+     * Wraps a supplier so that every call goes through the bulkhead.
+     */
+    public <T> Supplier<T> decorate(Supplier<T> supplier) {
+        return () -> call(supplier);
+    }
+
+    /**
+     * Wraps a function so that every call goes through the bulkhead.
+     */
+    public <T, R> Function<T, R> decorate(Function<T, R> function) {
+        return t -> call(() -> function.apply(t));
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Returns the number of calls currently running.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of free slots.
+     */
+    public int getAvailable() {
+        return Math.max(0, maxConcurrentCalls - inFlight.get());
+    }
+
+    /**
+     * Thrown when all slots are taken.
+     */
+    public static class FullException extends CallNotPermittedException {
+
+        private static final long serialVersionUID = 1L;
+
+        public FullException(int maxConcurrentCalls) {
+            super("Bulkhead is full (" + maxConcurrentCalls + " concurrent calls)");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{inFlight=" + getInFlight() + ", max=" + maxConcurrentCalls + "}";
+    }
+}
@@ -0,0 +1,14 @@
+package com.akalea.sugar.internal;
+
+/**
+ * Thrown when a guard such as a circuit breaker or a bulkhead refuses to run a call.
+ * Retries stop immediately on this exception since the call was never attempted.
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,273 @@
+package com.akalea.sugar.internal;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A lock-free circuit breaker.
+ * While CLOSED, call outcomes are recorded in a sliding window of the last windowSize calls;
+ * once at least minimumCalls are recorded and the failure rate reaches the threshold, the breaker
+ * OPENs and rejects calls with OpenException. After openDuration it lets halfOpenCalls trial calls
+ * through: if they all succeed it closes with a fresh window, otherwise it opens again.
+ * The current state and its window live in a single atomic reference, so a successful call
+ * costs a few atomic updates and never takes a lock.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final int EMPTY = 0;
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+
+    private final double failureRateThreshold;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final AtomicReference<Phase> phase;
+
+    private CircuitBreaker(
+        double failureRateThreshold,
+        int windowSize,
+        int minimumCalls,
+        Duration openDuration,
+        int halfOpenCalls) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1)
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]");
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize)
+            throw new IllegalArgumentException("Minimum calls must be in [1, windowSize]");
+        if (halfOpenCalls <= 0)
+            throw new IllegalArgumentException("Half-open calls must be positive");
+        this.failureRateThreshold = failureRateThreshold;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.phase = new AtomicReference<>(closedPhase());
+    }
+
+    /**
+     * Creates a breaker opening when the failure rate over the last windowSize calls reaches the threshold.
+     * At least half a window of calls is needed before it can open, and one trial call is let through after openDuration.
+     */
+    public static CircuitBreaker of(double failureRateThreshold, int windowSize, Duration openDuration) {
+        return new CircuitBreaker(failureRateThreshold, windowSize, Math.max(1, windowSize / 2), openDuration, 1);
+    }
+
+    /**
+     * Creates a fully configured breaker.
+     */
+    public static CircuitBreaker of(
+        double failureRateThreshold,
+        int windowSize,
+        int minimumCalls,
+        Duration openDuration,
+        int halfOpenCalls) {
+        return new CircuitBreaker(failureRateThreshold, windowSize, minimumCalls, openDuration, halfOpenCalls);
+    }
+
+    // ==================== Calls ====================
+
+    /**
+     * Runs the supplier if the breaker permits it and records the outcome.
+     * Throws OpenException without running the supplier otherwise.
+     */
+    public <T> T call(Supplier<T> supplier) {
+        Phase current = acquirePermission();
+        T result;
+        try {
+            result = supplier.get();
+        } catch (RuntimeException | Error e) {
+            onFailure(current);
+            throw e;
+        }
+        onSuccess(current);
+        return result;
+    }
+
+    /**
+     * Runs the runnable if the breaker permits it and records the outcome.
+     */
+    public void run(Runnable runnable) {
+        call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the supplier through the breaker, capturing failures and rejections in a Try.
+     */
+    public <T> Try<T> tryCall(Supplier<T> supplier) {
+        return Try.of(() -> call(supplier));
+    }
+
+    /**
+     * Wraps a supplier so that every call goes through the breaker.
+     */
+    public <T> Supplier<T> decorate(Supplier<T> supplier) {
+        return () -> call(supplier);
+    }
+
+    /**
+     * Wraps a function so that every call goes through the breaker.
+     */
+    public <T, R> Function<T, R> decorate(Function<T, R> function) {
+        return t -> call(() -> function.apply(t));
+    }
+
+    // ==================== State ====================
+
+    /**
+     * Returns the current state. An OPEN breaker whose open duration elapsed reports OPEN until the next call.
+     */
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * Returns the failure rate of the current window, or 0 while not CLOSED.
+     */
+    public double getFailureRate() {
+        Phase current = phase.get();
+        if (current.counts == null)
+            return 0;
+        int calls = current.counts.calls.get();
+        return calls == 0 ? 0 : current.counts.failures.get() / (double) calls;
+    }
+
+    /**
+     * Forces the breaker open, as if the threshold had just been reached.
+     */
+    public void open() {
+        phase.set(openPhase());
+    }
+
+    /**
+     * Forces the breaker closed with an empty window.
+     */
+    public void reset() {
+        phase.set(closedPhase());
+    }
+
+    private Phase acquirePermission() {
+        while (true) {
+            Phase current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (System.nanoTime() - current.since < openNanos)
+                        throw new OpenException();
+                    phase.compareAndSet(current, halfOpenPhase());
+                    break;
+                default:
+                    int permits = current.permits.get();
+                    if (permits <= 0)
+                        throw new OpenException();
+                    if (current.permits.compareAndSet(permits, permits - 1))
+                        return current;
+            }
+        }
+    }
+
+    private void onSuccess(Phase current) {
+        if (current.state == State.CLOSED)
+            current.counts.record(false);
+        else if (current.state == State.HALF_OPEN && current.successes.incrementAndGet() >= halfOpenCalls)
+            phase.compareAndSet(current, closedPhase());
+    }
+
+    private void onFailure(Phase current) {
+        if (current.state == State.CLOSED) {
+            if (current.counts.record(true))
+                phase.compareAndSet(current, openPhase());
+        } else if (current.state == State.HALF_OPEN) {
+            phase.compareAndSet(current, openPhase());
+        }
+    }
+
+    private Phase closedPhase() {
+        return new Phase(State.CLOSED, new SlidingCounts());
+    }
+
+    private Phase openPhase() {
+        return new Phase(State.OPEN, null);
+    }
+
+    private Phase halfOpenPhase() {
+        return new Phase(State.HALF_OPEN, null);
+    }
+
+    /**
+     * One stay in a state. Transitions replace the whole phase, so stale callers update a phase that is no longer current.
+     */
+    private class Phase {
+
+        final State state;
+        final long since = System.nanoTime();
+        final SlidingCounts counts;
+        final AtomicInteger permits = new AtomicInteger(halfOpenCalls);
+        final AtomicInteger successes = new AtomicInteger(0);
+
+        Phase(State state, SlidingCounts counts) {
+            this.state = state;
+            this.counts = counts;
+        }
+    }
+
+    /**
+     * Ring of the last windowSize outcomes with running counts.
+     */
+    private class SlidingCounts {
+
+        final AtomicIntegerArray outcomes = new AtomicIntegerArray(windowSize);
+        final AtomicLong next = new AtomicLong(0);
+        final AtomicInteger calls = new AtomicInteger(0);
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        /**
+         * Records an outcome and returns true if the failure rate now trips the breaker.
+         */
+        boolean record(boolean failed) {
+            int slot = (int) (next.getAndIncrement() % windowSize);
+            int previous = outcomes.getAndSet(slot, failed ? FAILURE : SUCCESS);
+            if (previous == EMPTY)
+                calls.incrementAndGet();
+            else if (previous == FAILURE)
+                failures.decrementAndGet();
+            if (!failed)
+                return false;
+            int failing = failures.incrementAndGet();
+            int recorded = calls.get();
+            return recorded >= minimumCalls && failing >= failureRateThreshold * recorded;
+        }
+    }
+
+    /**
+     * Thrown when the breaker rejects a call.
+     */
+    public static class OpenException extends CallNotPermittedException {
+
+        private static final long serialVersionUID = 1L;
+
+        public OpenException() {
+            super("Circuit breaker is open");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{state=" + getState() + ", failureRate=" + getFailureRate() + "}";
+    }
+}
@@ -0,0 +1,283 @@
+package com.akalea.sugar.internal;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+
+/**
+ * A growable list of doubles backed by a double array, without boxing.
+ * Takes a fraction of the memory of a List&lt;Double&gt; and keeps elements contiguous.
+ * Not thread-safe.
+ */
+public class DoubleList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final double[] EMPTY = new double[0];
+
+    private double[] elements;
+    private int size;
+
+    public DoubleList() {
+        this.elements = EMPTY;
+    }
+
+    public DoubleList(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must not be negative");
+        this.elements = capacity == 0 ? EMPTY : new double[capacity];
+    }
+
+    private DoubleList(double[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    public static DoubleList of(double... values) {
+        return new DoubleList(values.clone(), values.length);
+    }
+
+    /**
+     * Creates a list backed by the array, without copying. Changes to the array show in the list
+     * until the list outgrows it.
+     */
+    public static DoubleList wrap(double[] values) {
+        return new DoubleList(values, values.length);
+    }
+
+    public static DoubleList copyOf(Iterable<Double> values) {
+        DoubleList result = new DoubleList();
+        for (Double value : values)
+            result.add(value);
+        return result;
+    }
+
+    // ==================== Access ====================
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at the index and returns the previous one.
+     */
+    public double set(int index, double value) {
+        checkIndex(index);
+        double previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public DoubleList add(double value) {
+        if (size == elements.length)
+            grow(size + 1);
+        elements[size++] = value;
+        return this;
+    }
+
+    public DoubleList addAll(double... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+        return this;
+    }
+
+    public DoubleList addAll(DoubleList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+        return this;
+    }
+
+    /**
+     * Removes the element at the index and returns it.
+     */
+    public double removeAt(int index) {
+        checkIndex(index);
+        double removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int indexOf(double value) {
+        for (int i = 0; i < size; i++)
+            if (elements[i] == value)
+                return i;
+        return -1;
+    }
+
+    public boolean contains(double value) {
+        return indexOf(value) >= 0;
+    }
+
+    // ==================== Bulk Operations ====================
+
+    public DoubleList map(DoubleUnaryOperator function) {
+        double[] result = new double[size];
+        for (int i = 0; i < size; i++)
+            result[i] = function.applyAsDouble(elements[i]);
+        return new DoubleList(result, size);
+    }
+
+    public DoubleList filter(DoublePredicate predicate) {
+        DoubleList result = new DoubleList();
+        for (int i = 0; i < size; i++)
+            if (predicate.test(elements[i]))
+                result.add(elements[i]);
+        return result;
+    }
+
+    public void forEach(DoubleConsumer consumer) {
+        for (int i = 0; i < size; i++)
+            consumer.accept(elements[i]);
+    }
+
+    public double sum() {
+        double sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += elements[i];
+        return sum;
+    }
+
+    public double min() {
+        checkNotEmpty();
+        double min = elements[0];
+        for (int i = 1; i < size; i++)
+            min = Math.min(min, elements[i]);
+        return min;
+    }
+
+    public double max() {
+        checkNotEmpty();
+        double max = elements[0];
+        for (int i = 1; i < size; i++)
+            max = Math.max(max, elements[i]);
+        return max;
+    }
+
+    /**
+     * Sorts the list in place in ascending order.
+     */
+    public DoubleList sort() {
+        Arrays.sort(elements, 0, size);
+        return this;
+    }
+
+    /**
+     * Searches a sorted list. Returns the index of the value, or (-(insertion point) - 1) when absent.
+     */
+    public int binarySearch(double value) {
+        return Arrays.binarySearch(elements, 0, size, value);
+    }
+
+    // ==================== Conversions ====================
+
+    /**
+     * Returns a copy of the elements.
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Returns the backing array, trimmed to the size first if needed. No copy is made when the list
+     * is full, as after wrap; the array stays shared with the list until the list grows.
+     */
+    public double[] array() {
+        if (elements.length != size)
+            elements = Arrays.copyOf(elements, size);
+        return elements;
+    }
+
+    public DoubleStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * Returns a read-only List view. Elements are boxed as they are read.
+     */
+    public List<Double> boxed() {
+        return new BoxedView();
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length)
+            grow(capacity);
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0)
+            throw new NoSuchElementException("List is empty");
+    }
+
+    private class BoxedView extends AbstractList<Double> implements RandomAccess {
+
+        @Override
+        public Double get(int index) {
+            return DoubleList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof DoubleList))
+            return false;
+        DoubleList other = (DoubleList) o;
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++)
+            hash = 31 * hash + Double.hashCode(elements[i]);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,114 @@
+package com.akalea.sugar.internal;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Recursive range splitting on a ForkJoinPool.
+ * Ranges are halved until they hold at most grainSize indexes; idle workers steal
+ * pending halves, which balances load when per-element cost is skewed.
+ */
+public class ForkJoin {
+
+    /**
+     * Computes a partial result for the index range [from, to).
+     */
+    @FunctionalInterface
+    public interface RangeFunction<R> {
+        R apply(int from, int to);
+    }
+
+    private ForkJoin() {
+    }
+
+    /**
+     * Picks a range size giving each worker about eight leaves, leaving room for stealing.
+     */
+    public static int grainSize(int count, int parallelism) {
+        return Math.max(1, count / (Math.max(1, parallelism) * 8));
+    }
+
+    /**
+     * Runs task(0) .. task(count - 1) on the pool and waits for completion.
+     */
+    public static void forEach(ForkJoinPool pool, int count, int grainSize, IntConsumer task) {
+        if (count == 0)
+            return;
+        pool.invoke(new RangeAction(0, count, Math.max(1, grainSize), task));
+    }
+
+    /**
+     * Computes a partial result per leaf range and merges partial results pairwise up the split tree.
+     */
+    public static <R> R reduce(
+        ForkJoinPool pool,
+        int count,
+        int grainSize,
+        RangeFunction<R> leaf,
+        BinaryOperator<R> combiner) {
+        return pool.invoke(new RangeTask<>(0, count, Math.max(1, grainSize), leaf, combiner));
+    }
+
+    private static class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grainSize;
+        private final IntConsumer task;
+
+        RangeAction(int from, int to, int grainSize, IntConsumer task) {
+            this.from = from;
+            this.to = to;
+            this.grainSize = grainSize;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grainSize) {
+                for (int i = from; i < to; i++)
+                    task.accept(i);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                new RangeAction(from, mid, grainSize, task),
+                new RangeAction(mid, to, grainSize, task));
+        }
+    }
+
+    private static class RangeTask<R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grainSize;
+        private final RangeFunction<R> leaf;
+        private final BinaryOperator<R> combiner;
+
+        RangeTask(int from, int to, int grainSize, RangeFunction<R> leaf, BinaryOperator<R> combiner) {
+            this.from = from;
+            this.to = to;
+            this.grainSize = grainSize;
+            this.leaf = leaf;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= grainSize)
+                return leaf.apply(from, to);
+            int mid = (from + to) >>> 1;
+            RangeTask<R> right = new RangeTask<>(mid, to, grainSize, leaf, combiner);
+            right.fork();
+            R left = new RangeTask<>(from, mid, grainSize, leaf, combiner).compute();
+            return combiner.apply(left, right.join());
+        }
+    }
+}
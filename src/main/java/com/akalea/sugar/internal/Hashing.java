@@ -0,0 +1,50 @@
+package com.akalea.sugar.internal;
+
+/**
+ * Table sizing and hash mixing shared by the open-addressing maps.
+ */
+final class Hashing {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    /**
+     * Spreads the bits of a hash code so that keys with similar low bits do not cluster.
+     */
+    static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long hash) {
+        return mix((int) (hash ^ (hash >>> 32)));
+    }
+
+    /**
+     * Returns the power-of-two table capacity holding the expected number of keys without resizing.
+     */
+    static int tableSize(int expectedSize, int minCapacity) {
+        int capacity = minCapacity;
+        while (resizeThreshold(capacity) < expectedSize && capacity < MAX_CAPACITY)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    /**
+     * Tables are grown once three quarters full, keeping probe chains short.
+     * A table at the maximum capacity cannot grow, so it fills up to its last empty slot instead.
+     */
+    static int resizeThreshold(int capacity) {
+        return capacity >= MAX_CAPACITY ? capacity - 1 : capacity - (capacity >>> 2);
+    }
+
+    /**
+     * Throws when a table at the maximum capacity is down to the empty slot that ends its probes.
+     */
+    static void ensureRoom(int size, int capacity) {
+        if (capacity >= MAX_CAPACITY && size >= capacity - 1)
+            throw new IllegalStateException("Map is full");
+    }
+}
@@ -0,0 +1,100 @@
+package com.akalea.sugar.internal;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Decides when a hedged race launches its next backup attempt.
+ * A fixed policy waits a constant delay. A percentile policy waits until the given percentile
+ * of recently observed latencies, so backups only fire for the slowest calls.
+ * A policy can be shared by many races; it is safe for concurrent use.
+ */
+public class Hedge {
+
+    private static final int SAMPLES = 1024;
+    private static final int REFRESH_EVERY = 64;
+
+    private final long fixedDelayNanos;
+    private final double percentile;
+    private final AtomicLongArray latencies;
+    private final AtomicLong recorded = new AtomicLong(0);
+    private volatile long percentileNanos;
+    private volatile long refreshedAt = 0;
+
+    private Hedge(long fixedDelayNanos, double percentile, boolean adaptive) {
+        this.fixedDelayNanos = fixedDelayNanos;
+        this.percentile = percentile;
+        this.latencies = adaptive ? new AtomicLongArray(SAMPLES) : null;
+        this.percentileNanos = fixedDelayNanos;
+    }
+
+    /**
+     * Launches a backup whenever the delay elapses without an answer.
+     */
+    public static Hedge afterDelay(Duration delay) {
+        if (delay.isNegative())
+            throw new IllegalArgumentException("Delay cannot be negative");
+        return new Hedge(delay.toNanos(), 0, false);
+    }
+
+    /**
+     * Launches a backup once an attempt has run longer than the given percentile of recent latencies,
+     * e.g. 0.95. Until enough latencies are recorded the initial delay is used.
+     */
+    public static Hedge afterPercentile(double percentile, Duration initialDelay) {
+        if (percentile <= 0 || percentile >= 1)
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+        if (initialDelay.isNegative())
+            throw new IllegalArgumentException("Initial delay cannot be negative");
+        return new Hedge(initialDelay.toNanos(), percentile, true);
+    }
+
+    /**
+     * Returns the delay before launching the next backup.
+     */
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos());
+    }
+
+    /**
+     * Returns the delay before launching the next backup, in nanoseconds.
+     */
+    public long delayNanos() {
+        if (latencies == null)
+            return fixedDelayNanos;
+        long count = recorded.get();
+        if (count >= REFRESH_EVERY && count - refreshedAt >= REFRESH_EVERY) {
+            refreshedAt = count;
+            percentileNanos = computePercentile(count);
+        }
+        return percentileNanos;
+    }
+
+    /**
+     * Records the latency of a successful race, measured from its start. Ignored by fixed policies.
+     */
+    public void record(long latencyNanos) {
+        if (latencies == null)
+            return;
+        long index = recorded.getAndIncrement();
+        latencies.set((int) (index % SAMPLES), latencyNanos);
+    }
+
+    private long computePercentile(long count) {
+        int size = (int) Math.min(count, SAMPLES);
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++)
+            sorted[i] = latencies.get(i);
+        Arrays.sort(sorted);
+        return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+    }
+
+    @Override
+    public String toString() {
+        return latencies == null
+            ? "Hedge{delay=" + Duration.ofNanos(fixedDelayNanos) + "}"
+            : "Hedge{p" + Math.round(percentile * 100) + "=" + Duration.ofNanos(percentileNanos) + "}";
+    }
+}
@@ -0,0 +1,97 @@
+package com.akalea.sugar.internal;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of nanosecond durations with power-of-two buckets.
+ * Recording is a handful of atomic increments; percentiles are approximate,
+ * reported as the upper bound of the bucket they fall in, capped by the maximum.
+ */
+public class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong(0);
+    private final AtomicLong sum = new AtomicLong(0);
+    private final AtomicLong max = new AtomicLong(0);
+
+    /**
+     * Records a duration in nanoseconds. Negative values count as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the total of recorded durations.
+     */
+    public Duration getTotal() {
+        return Duration.ofNanos(sum.get());
+    }
+
+    public Duration getMean() {
+        long n = count.get();
+        return n == 0 ? Duration.ZERO : Duration.ofNanos(sum.get() / n);
+    }
+
+    public Duration getMax() {
+        return Duration.ofNanos(max.get());
+    }
+
+    /**
+     * Returns an upper bound of the given percentile, e.g. 0.99.
+     */
+    public Duration getPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0)
+            return Duration.ZERO;
+        long rank = (long) Math.ceil(percentile * n);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += buckets.get(b);
+            if (seen >= rank)
+                return Duration.ofNanos(Math.min(upperBound(b), max.get()));
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns a copy that no longer changes.
+     */
+    public Histogram snapshot() {
+        Histogram copy = new Histogram();
+        for (int b = 0; b < BUCKETS; b++)
+            copy.buckets.set(b, buckets.get(b));
+        copy.count.set(count.get());
+        copy.sum.set(sum.get());
+        copy.max.set(max.get());
+        return copy;
+    }
+
+    private static int bucket(long value) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram{count=" + getCount()
+            + ", mean=" + getMean().toNanos() + "ns"
+            + ", p99=" + getPercentile(0.99).toNanos() + "ns"
+            + ", max=" + getMax().toNanos() + "ns}";
+    }
+}
@@ -0,0 +1,250 @@
+package com.akalea.sugar.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An open-addressing hash map from primitive ints to primitive ints, with linear probing.
+ * Neither keys nor values are boxed; counting through addTo updates the value in place.
+ * Missing keys read as zero. Not thread-safe.
+ */
+public class IntIntMap {
+
+    /**
+     * Receives the entries of the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    private static final int MIN_CAPACITY = 8;
+
+    // zero marks empty slots, so the zero key is kept aside
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates a map holding the expected number of keys without resizing.
+     */
+    public IntIntMap(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Expected size must not be negative");
+        allocate(Hashing.tableSize(expectedSize, MIN_CAPACITY));
+    }
+
+    // ==================== Access ====================
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0)
+            return hasZeroKey;
+        return keys[slot(key)] != 0;
+    }
+
+    /**
+     * Returns the value of the key, or zero.
+     */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroValue : defaultValue;
+        int slot = slot(key);
+        return keys[slot] != 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Associates the value with the key. Returns the previous value, or zero.
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int previous = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int slot = slot(key);
+        if (keys[slot] != 0) {
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(slot, key, value);
+        return 0;
+    }
+
+    /**
+     * Adds delta to the value of the key, starting from zero when absent. Returns the new value.
+     */
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            hasZeroKey = true;
+            return zeroValue += delta;
+        }
+        int slot = slot(key);
+        if (keys[slot] != 0)
+            return values[slot] += delta;
+        insert(slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * Adds every value of the other map to this one.
+     */
+    public IntIntMap addAll(IntIntMap other) {
+        other.forEach(this::addTo);
+        return this;
+    }
+
+    /**
+     * Removes the key. Returns its value, or zero.
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            int previous = zeroValue;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return previous;
+        }
+        int slot = slot(key);
+        if (keys[slot] == 0)
+            return 0;
+        int previous = values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    // ==================== Iteration ====================
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey)
+            consumer.accept(0, zeroValue);
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != 0)
+                consumer.accept(keys[i], values[i]);
+    }
+
+    /**
+     * Copies the entries into a HashMap, boxing each key and value once.
+     */
+    public Map<Integer, Integer> toMap() {
+        Map<Integer, Integer> result = new HashMap<>(Math.max(16, (int) (size() / 0.75f) + 1));
+        forEach(result::put);
+        return result;
+    }
+
+    // ==================== Table ====================
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = Hashing.resizeThreshold(capacity);
+    }
+
+    /**
+     * Returns the slot holding the key, or the empty slot where it belongs.
+     */
+    private int slot(int key) {
+        int slot = Hashing.mix(key) & mask;
+        int existing;
+        while ((existing = keys[slot]) != 0 && existing != key)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void insert(int slot, int key, int value) {
+        Hashing.ensureRoom(size, keys.length);
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt)
+            rehash(keys.length << 1);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Empties the slot and moves later keys of the probe chain back so that lookups still find them.
+     */
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != 0) {
+            int ideal = Hashing.mix(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof IntIntMap))
+            return false;
+        IntIntMap other = (IntIntMap) o;
+        if (size() != other.size())
+            return false;
+        boolean[] equal = { true };
+        forEach((k, v) -> equal[0] &= other.containsKey(k) && other.get(k) == v);
+        return equal[0];
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = { 0 };
+        forEach((k, v) -> hash[0] += Integer.hashCode(k) ^ Integer.hashCode(v));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return sb.append('}').toString();
+    }
+}
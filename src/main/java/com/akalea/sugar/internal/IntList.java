@@ -0,0 +1,286 @@
+package com.akalea.sugar.internal;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * A growable list of ints backed by an int array, without boxing.
+ * Takes about a quarter of the memory of a List&lt;Integer&gt; and keeps elements contiguous.
+ * Not thread-safe.
+ */
+public class IntList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int[] EMPTY = new int[0];
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this.elements = EMPTY;
+    }
+
+    public IntList(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must not be negative");
+        this.elements = capacity == 0 ? EMPTY : new int[capacity];
+    }
+
+    private IntList(int[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    public static IntList of(int... values) {
+        return new IntList(values.clone(), values.length);
+    }
+
+    /**
+     * Creates a list backed by the array, without copying. Changes to the array show in the list
+     * until the list outgrows it.
+     */
+    public static IntList wrap(int[] values) {
+        return new IntList(values, values.length);
+    }
+
+    public static IntList copyOf(Iterable<Integer> values) {
+        IntList result = new IntList();
+        for (Integer value : values)
+            result.add(value);
+        return result;
+    }
+
+    // ==================== Access ====================
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at the index and returns the previous one.
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public IntList add(int value) {
+        if (size == elements.length)
+            grow(size + 1);
+        elements[size++] = value;
+        return this;
+    }
+
+    public IntList addAll(int... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+        return this;
+    }
+
+    public IntList addAll(IntList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+        return this;
+    }
+
+    /**
+     * Removes the element at the index and returns it.
+     */
+    public int removeAt(int index) {
+        checkIndex(index);
+        int removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++)
+            if (elements[i] == value)
+                return i;
+        return -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    // ==================== Bulk Operations ====================
+
+    public IntList map(IntUnaryOperator function) {
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++)
+            result[i] = function.applyAsInt(elements[i]);
+        return new IntList(result, size);
+    }
+
+    public IntList filter(IntPredicate predicate) {
+        IntList result = new IntList();
+        for (int i = 0; i < size; i++)
+            if (predicate.test(elements[i]))
+                result.add(elements[i]);
+        return result;
+    }
+
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++)
+            consumer.accept(elements[i]);
+    }
+
+    /**
+     * Returns the sum as a long so that large lists do not overflow.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += elements[i];
+        return sum;
+    }
+
+    public int min() {
+        checkNotEmpty();
+        int min = elements[0];
+        for (int i = 1; i < size; i++)
+            min = Math.min(min, elements[i]);
+        return min;
+    }
+
+    public int max() {
+        checkNotEmpty();
+        int max = elements[0];
+        for (int i = 1; i < size; i++)
+            max = Math.max(max, elements[i]);
+        return max;
+    }
+
+    /**
+     * Sorts the list in place in ascending order.
+     */
+    public IntList sort() {
+        Arrays.sort(elements, 0, size);
+        return this;
+    }
+
+    /**
+     * Searches a sorted list. Returns the index of the value, or (-(insertion point) - 1) when absent.
+     */
+    public int binarySearch(int value) {
+        return Arrays.binarySearch(elements, 0, size, value);
+    }
+
+    // ==================== Conversions ====================
+
+    /**
+     * Returns a copy of the elements.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Returns the backing array, trimmed to the size first if needed. No copy is made when the list
+     * is full, as after wrap; the array stays shared with the list until the list grows.
+     */
+    public int[] array() {
+        if (elements.length != size)
+            elements = Arrays.copyOf(elements, size);
+        return elements;
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * Returns a read-only List view. Elements are boxed as they are read.
+     */
+    public List<Integer> boxed() {
+        return new BoxedView();
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length)
+            grow(capacity);
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0)
+            throw new NoSuchElementException("List is empty");
+    }
+
+    private class BoxedView extends AbstractList<Integer> implements RandomAccess {
+
+        @Override
+        public Integer get(int index) {
+            return IntList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof IntList))
+            return false;
+        IntList other = (IntList) o;
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++)
+            hash = 31 * hash + Integer.hashCode(elements[i]);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
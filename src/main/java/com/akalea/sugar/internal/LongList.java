@@ -0,0 +1,283 @@
+package com.akalea.sugar.internal;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+
+/**
+ * A growable list of longs backed by a long array, without boxing.
+ * Takes a fraction of the memory of a List&lt;Long&gt; and keeps elements contiguous.
+ * Not thread-safe.
+ */
+public class LongList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final long[] EMPTY = new long[0];
+
+    private long[] elements;
+    private int size;
+
+    public LongList() {
+        this.elements = EMPTY;
+    }
+
+    public LongList(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must not be negative");
+        this.elements = capacity == 0 ? EMPTY : new long[capacity];
+    }
+
+    private LongList(long[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    public static LongList of(long... values) {
+        return new LongList(values.clone(), values.length);
+    }
+
+    /**
+     * Creates a list backed by the array, without copying. Changes to the array show in the list
+     * until the list outgrows it.
+     */
+    public static LongList wrap(long[] values) {
+        return new LongList(values, values.length);
+    }
+
+    public static LongList copyOf(Iterable<Long> values) {
+        LongList result = new LongList();
+        for (Long value : values)
+            result.add(value);
+        return result;
+    }
+
+    // ==================== Access ====================
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at the index and returns the previous one.
+     */
+    public long set(int index, long value) {
+        checkIndex(index);
+        long previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public LongList add(long value) {
+        if (size == elements.length)
+            grow(size + 1);
+        elements[size++] = value;
+        return this;
+    }
+
+    public LongList addAll(long... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+        return this;
+    }
+
+    public LongList addAll(LongList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+        return this;
+    }
+
+    /**
+     * Removes the element at the index and returns it.
+     */
+    public long removeAt(int index) {
+        checkIndex(index);
+        long removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int indexOf(long value) {
+        for (int i = 0; i < size; i++)
+            if (elements[i] == value)
+                return i;
+        return -1;
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) >= 0;
+    }
+
+    // ==================== Bulk Operations ====================
+
+    public LongList map(LongUnaryOperator function) {
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++)
+            result[i] = function.applyAsLong(elements[i]);
+        return new LongList(result, size);
+    }
+
+    public LongList filter(LongPredicate predicate) {
+        LongList result = new LongList();
+        for (int i = 0; i < size; i++)
+            if (predicate.test(elements[i]))
+                result.add(elements[i]);
+        return result;
+    }
+
+    public void forEach(LongConsumer consumer) {
+        for (int i = 0; i < size; i++)
+            consumer.accept(elements[i]);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += elements[i];
+        return sum;
+    }
+
+    public long min() {
+        checkNotEmpty();
+        long min = elements[0];
+        for (int i = 1; i < size; i++)
+            min = Math.min(min, elements[i]);
+        return min;
+    }
+
+    public long max() {
+        checkNotEmpty();
+        long max = elements[0];
+        for (int i = 1; i < size; i++)
+            max = Math.max(max, elements[i]);
+        return max;
+    }
+
+    /**
+     * Sorts the list in place in ascending order.
+     */
+    public LongList sort() {
+        Arrays.sort(elements, 0, size);
+        return this;
+    }
+
+    /**
+     * Searches a sorted list. Returns the index of the value, or (-(insertion point) - 1) when absent.
+     */
+    public int binarySearch(long value) {
+        return Arrays.binarySearch(elements, 0, size, value);
+    }
+
+    // ==================== Conversions ====================
+
+    /**
+     * Returns a copy of the elements.
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Returns the backing array, trimmed to the size first if needed. No copy is made when the list
+     * is full, as after wrap; the array stays shared with the list until the list grows.
+     */
+    public long[] array() {
+        if (elements.length != size)
+            elements = Arrays.copyOf(elements, size);
+        return elements;
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * Returns a read-only List view. Elements are boxed as they are read.
+     */
+    public List<Long> boxed() {
+        return new BoxedView();
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length)
+            grow(capacity);
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0)
+            throw new NoSuchElementException("List is empty");
+    }
+
+    private class BoxedView extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public Long get(int index) {
+            return LongList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof LongList))
+            return false;
+        LongList other = (LongList) o;
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++)
+            hash = 31 * hash + Long.hashCode(elements[i]);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,206 @@
+package com.akalea.sugar.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A map from keys to lists of values, where values are appended to their key's bucket in place.
+ * Grouping n values costs O(n), whatever the number of keys.
+ * The hash variant accepts a null key, the linked one keeps keys in first-insertion order,
+ * and the sorted one keeps them ordered. Not thread-safe.
+ *
+ * <pre>
+ * Multimap&lt;String, Order&gt; byStatus = Multimap.linked();
+ * byStatus.putAll(orders, Order::getStatus);
+ * List&lt;Order&gt; pending = byStatus.get("PENDING");
+ * </pre>
+ */
+public class Multimap<K, V> {
+
+    private final Map<K, List<V>> buckets;
+    private final int bucketCapacity;
+    private int size;
+
+    private Multimap(Map<K, List<V>> buckets, int bucketCapacity) {
+        if (bucketCapacity < 0)
+            throw new IllegalArgumentException("Bucket capacity must not be negative");
+        this.buckets = buckets;
+        this.bucketCapacity = bucketCapacity;
+    }
+
+    public static <K, V> Multimap<K, V> hash() {
+        return new Multimap<>(new HashMap<>(), 10);
+    }
+
+    /**
+     * Creates a hash multimap holding the expected number of keys without rehashing.
+     */
+    public static <K, V> Multimap<K, V> hash(int expectedKeys) {
+        return new Multimap<>(new HashMap<>(capacity(expectedKeys)), 10);
+    }
+
+    /**
+     * Creates a hash multimap sized for the expected number of keys and of values per key.
+     */
+    public static <K, V> Multimap<K, V> hash(int expectedKeys, int expectedValuesPerKey) {
+        return new Multimap<>(new HashMap<>(capacity(expectedKeys)), expectedValuesPerKey);
+    }
+
+    /**
+     * Creates a multimap keeping keys in the order they were first added.
+     */
+    public static <K, V> Multimap<K, V> linked() {
+        return new Multimap<>(new LinkedHashMap<>(), 10);
+    }
+
+    public static <K, V> Multimap<K, V> linked(int expectedKeys) {
+        return new Multimap<>(new LinkedHashMap<>(capacity(expectedKeys)), 10);
+    }
+
+    /**
+     * Creates a multimap keeping keys in natural order.
+     */
+    public static <K extends Comparable<K>, V> Multimap<K, V> sorted() {
+        return new Multimap<>(new TreeMap<>(), 10);
+    }
+
+    public static <K, V> Multimap<K, V> sorted(Comparator<K> comparator) {
+        return new Multimap<>(new TreeMap<>(comparator), 10);
+    }
+
+    // ==================== Updates ====================
+
+    /**
+     * Appends the value to the key's bucket.
+     */
+    public Multimap<K, V> put(K key, V value) {
+        bucket(key).add(value);
+        size++;
+        return this;
+    }
+
+    public Multimap<K, V> putAll(K key, Iterable<V> values) {
+        List<V> bucket = bucket(key);
+        for (V value : values) {
+            bucket.add(value);
+            size++;
+        }
+        return this;
+    }
+
+    /**
+     * Appends every value to the bucket of its key.
+     */
+    public Multimap<K, V> putAll(Iterable<V> values, Function<V, K> keys) {
+        for (V value : values)
+            put(keys.apply(value), value);
+        return this;
+    }
+
+    /**
+     * Removes the key and returns its values, or an empty list.
+     */
+    public List<V> remove(K key) {
+        List<V> bucket = buckets.remove(key);
+        if (bucket == null)
+            return Collections.emptyList();
+        size -= bucket.size();
+        return bucket;
+    }
+
+    public void clear() {
+        buckets.clear();
+        size = 0;
+    }
+
+    // ==================== Access ====================
+
+    /**
+     * Returns a read-only view of the key's values, or an empty list.
+     */
+    public List<V> get(K key) {
+        List<V> bucket = buckets.get(key);
+        return bucket == null ? Collections.emptyList() : Collections.unmodifiableList(bucket);
+    }
+
+    public boolean containsKey(K key) {
+        return buckets.containsKey(key);
+    }
+
+    /**
+     * Returns the total number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int keyCount() {
+        return buckets.size();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(buckets.keySet());
+    }
+
+    /**
+     * Passes every key and value pair to the consumer, bucket by bucket.
+     */
+    public void forEach(BiConsumer<K, V> consumer) {
+        buckets.forEach((k, bucket) -> bucket.forEach(v -> consumer.accept(k, v)));
+    }
+
+    /**
+     * Returns the backing map of buckets, without copying. The multimap must not be used afterwards
+     * if the map is modified.
+     */
+    public Map<K, List<V>> asMap() {
+        return buckets;
+    }
+
+    private List<V> bucket(K key) {
+        List<V> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>(bucketCapacity);
+            buckets.put(key, bucket);
+        }
+        return bucket;
+    }
+
+    private static int capacity(int expectedKeys) {
+        if (expectedKeys < 0)
+            throw new IllegalArgumentException("Expected keys must not be negative");
+        return (int) Math.min(1 << 30, (long) Math.ceil(expectedKeys / 0.75));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof Multimap))
+            return false;
+        return buckets.equals(((Multimap<?, ?>) o).buckets);
+    }
+
+    @Override
+    public int hashCode() {
+        return buckets.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return buckets.toString();
+    }
+}
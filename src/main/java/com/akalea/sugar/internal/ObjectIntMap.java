@@ -0,0 +1,251 @@
+package com.akalea.sugar.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * An open-addressing hash map from objects to primitive ints, with linear probing.
+ * Counting through addTo updates the value in place, without boxing.
+ * Missing keys read as zero. The null key is supported. Not thread-safe.
+ *
+ * <pre>
+ * ObjectIntMap&lt;String&gt; counts = new ObjectIntMap&lt;&gt;();
+ * for (String word : words)
+ *     counts.addTo(word, 1);
+ * </pre>
+ */
+public class ObjectIntMap<K> {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private Object[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasNullKey;
+    private int nullValue;
+
+    public ObjectIntMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates a map holding the expected number of keys without resizing.
+     */
+    public ObjectIntMap(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Expected size must not be negative");
+        allocate(Hashing.tableSize(expectedSize, MIN_CAPACITY));
+    }
+
+    // ==================== Access ====================
+
+    public int size() {
+        return size + (hasNullKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(K key) {
+        if (key == null)
+            return hasNullKey;
+        return keys[slot(key)] != null;
+    }
+
+    /**
+     * Returns the value of the key, or zero.
+     */
+    public int get(K key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(K key, int defaultValue) {
+        if (key == null)
+            return hasNullKey ? nullValue : defaultValue;
+        int slot = slot(key);
+        return keys[slot] != null ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Associates the value with the key. Returns the previous value, or zero.
+     */
+    public int put(K key, int value) {
+        if (key == null) {
+            int previous = nullValue;
+            hasNullKey = true;
+            nullValue = value;
+            return previous;
+        }
+        int slot = slot(key);
+        if (keys[slot] != null) {
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(slot, key, value);
+        return 0;
+    }
+
+    /**
+     * Adds delta to the value of the key, starting from zero when absent. Returns the new value.
+     */
+    public int addTo(K key, int delta) {
+        if (key == null) {
+            hasNullKey = true;
+            return nullValue += delta;
+        }
+        int slot = slot(key);
+        if (keys[slot] != null)
+            return values[slot] += delta;
+        insert(slot, key, delta);
+        return delta;
+    }
+
+    /**
+     * Adds every value of the other map to this one.
+     */
+    public ObjectIntMap<K> addAll(ObjectIntMap<K> other) {
+        other.forEach(this::addTo);
+        return this;
+    }
+
+    /**
+     * Removes the key. Returns its value, or zero.
+     */
+    public int remove(K key) {
+        if (key == null) {
+            int previous = nullValue;
+            hasNullKey = false;
+            nullValue = 0;
+            return previous;
+        }
+        int slot = slot(key);
+        if (keys[slot] == null)
+            return 0;
+        int previous = values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, null);
+        size = 0;
+        hasNullKey = false;
+        nullValue = 0;
+    }
+
+    // ==================== Iteration ====================
+
+    @SuppressWarnings("unchecked") // the table only ever stores keys of type K
+    public void forEach(ObjIntConsumer<K> consumer) {
+        if (hasNullKey)
+            consumer.accept(null, nullValue);
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != null)
+                consumer.accept((K) keys[i], values[i]);
+    }
+
+    /**
+     * Copies the entries into a HashMap, boxing each value once.
+     */
+    public Map<K, Integer> toMap() {
+        Map<K, Integer> result = new HashMap<>(Math.max(16, (int) (size() / 0.75f) + 1));
+        forEach(result::put);
+        return result;
+    }
+
+    // ==================== Table ====================
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = Hashing.resizeThreshold(capacity);
+    }
+
+    /**
+     * Returns the slot holding the key, or the empty slot where it belongs.
+     */
+    private int slot(Object key) {
+        int slot = Hashing.mix(key.hashCode()) & mask;
+        Object existing;
+        while ((existing = keys[slot]) != null && !existing.equals(key))
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void insert(int slot, K key, int value) {
+        Hashing.ensureRoom(size, keys.length);
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt)
+            rehash(keys.length << 1);
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Empties the slot and moves later keys of the probe chain back so that lookups still find them.
+     */
+    private void shiftBack(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != null) {
+            int ideal = Hashing.mix(keys[next].hashCode()) & mask;
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // the other map's keys are only looked up, never stored
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ObjectIntMap))
+            return false;
+        ObjectIntMap<K> other = (ObjectIntMap<K>) o;
+        if (size() != other.size())
+            return false;
+        boolean[] equal = { true };
+        forEach((k, v) -> equal[0] &= other.containsKey(k) && other.get(k) == v);
+        return equal[0];
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = { 0 };
+        forEach((k, v) -> hash[0] += Objects.hashCode(k) ^ Integer.hashCode(v));
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,243 @@
+package com.akalea.sugar.internal;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A task run repeatedly until stopped.
+ * Runs are timed by the shared scheduler and executed on the blocking pool, one at a time:
+ * the next run is only scheduled once the current one has finished.
+ * With a fixed delay, the pause is measured from the end of a run. With a fixed rate,
+ * runs follow the start time plus multiples of the period, and ticks missed by a slow run are skipped.
+ * An optional jitter adds a random extra delay of up to the given duration to each run.
+ *
+ * <pre>
+ * PeriodicTask refresh = PeriodicTask.fixedRate(this::refresh, Duration.ofSeconds(30))
+ *     .jitter(Duration.ofSeconds(5))
+ *     .onError(e -&gt; log.warn("Refresh failed", e))
+ *     .start();
+ * ...
+ * refresh.stop();
+ * </pre>
+ */
+public class PeriodicTask implements AutoCloseable {
+
+    public enum Mode {
+        FIXED_DELAY,
+        FIXED_RATE
+    }
+
+    /**
+     * What to do after a run throws.
+     */
+    public enum ErrorPolicy {
+        CONTINUE,
+        STOP
+    }
+
+    private final Runnable task;
+    private final Mode mode;
+    private final long periodNanos;
+    private long initialDelayNanos;
+    private long jitterNanos = 0;
+    private ErrorPolicy errorPolicy = ErrorPolicy.CONTINUE;
+    private Consumer<Throwable> errorHandler = e -> {
+    };
+    private ExecutorService executor;
+
+    private final AtomicReference<Future<?>> next = new AtomicReference<>();
+    private final AtomicLong runs = new AtomicLong(0);
+    private final AtomicLong failures = new AtomicLong(0);
+    private volatile Throwable lastError;
+    private volatile boolean started = false;
+    private volatile boolean stopped = false;
+    private long nominalNanos;
+
+    private PeriodicTask(Runnable task, Mode mode, Duration period) {
+        if (period.isNegative() || period.isZero())
+            throw new IllegalArgumentException("Period must be positive");
+        this.task = task;
+        this.mode = mode;
+        this.periodNanos = period.toNanos();
+        this.initialDelayNanos = periodNanos;
+    }
+
+    /**
+     * Creates a task pausing for the delay between the end of a run and the start of the next.
+     * The first run happens after the delay. Call start to begin.
+     */
+    public static PeriodicTask fixedDelay(Runnable task, Duration delay) {
+        return new PeriodicTask(task, Mode.FIXED_DELAY, delay);
+    }
+
+    /**
+     * Creates a task started once per period. The first run happens after one period. Call start to begin.
+     */
+    public static PeriodicTask fixedRate(Runnable task, Duration period) {
+        return new PeriodicTask(task, Mode.FIXED_RATE, period);
+    }
+
+    // ==================== Configuration ====================
+
+    /**
+     * Sets the delay before the first run.
+     */
+    public PeriodicTask initialDelay(Duration delay) {
+        checkNotStarted();
+        this.initialDelayNanos = Math.max(0, delay.toNanos());
+        return this;
+    }
+
+    /**
+     * Adds a random delay between zero and the jitter to every run, to spread tasks sharing a period.
+     */
+    public PeriodicTask jitter(Duration jitter) {
+        checkNotStarted();
+        this.jitterNanos = Math.max(0, jitter.toNanos());
+        return this;
+    }
+
+    /**
+     * Sets the handler receiving exceptions thrown by runs.
+     */
+    public PeriodicTask onError(Consumer<Throwable> handler) {
+        checkNotStarted();
+        this.errorHandler = handler;
+        return this;
+    }
+
+    /**
+     * Sets whether the task keeps running after a failed run. Defaults to CONTINUE.
+     */
+    public PeriodicTask errorPolicy(ErrorPolicy policy) {
+        checkNotStarted();
+        this.errorPolicy = policy;
+        return this;
+    }
+
+    /**
+     * Runs the task on the given executor instead of the blocking pool.
+     */
+    public PeriodicTask executeOn(ExecutorService executor) {
+        checkNotStarted();
+        this.executor = executor;
+        return this;
+    }
+
+    // ==================== Lifecycle ====================
+
+    /**
+     * Schedules the first run.
+     */
+    public synchronized PeriodicTask start() {
+        checkNotStarted();
+        started = true;
+        nominalNanos = System.nanoTime() + initialDelayNanos;
+        scheduleAt(nominalNanos);
+        return this;
+    }
+
+    /**
+     * Cancels upcoming runs. A run in progress is not interrupted.
+     */
+    public void stop() {
+        stopped = true;
+        Future<?> pending = next.getAndSet(null);
+        if (pending != null)
+            pending.cancel(false);
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public boolean isRunning() {
+        return started && !stopped;
+    }
+
+    /**
+     * Returns the number of finished runs, failed or not.
+     */
+    public long getRuns() {
+        return runs.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Returns the exception of the last failed run, or null.
+     */
+    public Throwable getLastError() {
+        return lastError;
+    }
+
+    private void scheduleAt(long nanoTime) {
+        if (stopped)
+            return;
+        long jitter = jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos + 1) : 0;
+        long delay = Math.max(0, nanoTime - System.nanoTime()) + jitter;
+        next.set(Pools.scheduler().schedule(this::dispatch, delay, TimeUnit.NANOSECONDS));
+        if (stopped)
+            stop();
+    }
+
+    private void dispatch() {
+        if (stopped)
+            return;
+        ExecutorService target = executor != null ? executor : Pools.blocking();
+        next.set(target.submit(this::runOnce));
+    }
+
+    private void runOnce() {
+        boolean failed = false;
+        try {
+            if (!stopped)
+                task.run();
+        } catch (Throwable e) {
+            failed = true;
+            failures.incrementAndGet();
+            lastError = e;
+            try {
+                errorHandler.accept(e);
+            } catch (RuntimeException handlerError) {
+                // a failing handler must not end the task
+            }
+        }
+        runs.incrementAndGet();
+        if (failed && errorPolicy == ErrorPolicy.STOP) {
+            stopped = true;
+            return;
+        }
+        scheduleAt(nextRun());
+    }
+
+    private long nextRun() {
+        long now = System.nanoTime();
+        if (mode == Mode.FIXED_DELAY)
+            return now + periodNanos;
+        nominalNanos += periodNanos;
+        if (nominalNanos - now < 0)
+            nominalNanos += ((now - nominalNanos) / periodNanos + 1) * periodNanos;
+        return nominalNanos;
+    }
+
+    private void checkNotStarted() {
+        if (started)
+            throw new IllegalStateException("Periodic task already started");
+    }
+
+    @Override
+    public String toString() {
+        return "PeriodicTask{mode=" + mode + ", period=" + Duration.ofNanos(periodNanos)
+            + ", runs=" + runs.get() + ", running=" + isRunning() + "}";
+    }
+}
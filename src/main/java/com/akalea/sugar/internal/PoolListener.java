@@ -0,0 +1,27 @@
+package com.akalea.sugar.internal;
+
+/**
+ * Receives events from the instrumented default pools.
+ * Callbacks run on the pool threads, around every task, so they must be fast and must not block.
+ * Exceptions thrown by a listener are ignored.
+ */
+public interface PoolListener {
+
+    /**
+     * A task is about to run after waiting waitNanos in the queue.
+     */
+    default void onStart(String pool, long waitNanos) {
+    }
+
+    /**
+     * A task finished after running runNanos. The error is null when the task succeeded.
+     */
+    default void onComplete(String pool, long runNanos, Throwable error) {
+    }
+
+    /**
+     * A task was rejected by the pool.
+     */
+    default void onReject(String pool) {
+    }
+}
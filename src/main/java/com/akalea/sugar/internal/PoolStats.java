@@ -0,0 +1,116 @@
+package com.akalea.sugar.internal;
+
+/**
+ * Point-in-time view of a pool.
+ * Gauges come from the executor itself; counters and histograms are only tracked
+ * for the instrumented default thread pools and are zero or empty otherwise.
+ * The fork/join pool reports steals instead of per-task timings.
+ */
+public class PoolStats {
+
+    private final String name;
+    private final int poolSize;
+    private final int activeCount;
+    private final long queueDepth;
+    private final long completed;
+    private final long failed;
+    private final long rejected;
+    private final long steals;
+    private final Histogram waitTime;
+    private final Histogram runTime;
+
+    PoolStats(
+        String name,
+        int poolSize,
+        int activeCount,
+        long queueDepth,
+        long completed,
+        long failed,
+        long rejected,
+        long steals,
+        Histogram waitTime,
+        Histogram runTime) {
+        this.name = name;
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueDepth = queueDepth;
+        this.completed = completed;
+        this.failed = failed;
+        this.rejected = rejected;
+        this.steals = steals;
+        this.waitTime = waitTime;
+        this.runTime = runTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of threads currently in the pool.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Returns the number of threads running tasks.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread.
+     */
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the number of tasks stolen between fork/join workers.
+     */
+    public long getSteals() {
+        return steals;
+    }
+
+    /**
+     * Returns the time tasks spent queued before starting.
+     */
+    public Histogram getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Returns the time tasks spent running.
+     */
+    public Histogram getRunTime() {
+        return runTime;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{name=" + name
+            + ", poolSize=" + poolSize
+            + ", active=" + activeCount
+            + ", queued=" + queueDepth
+            + ", completed=" + completed
+            + ", failed=" + failed
+            + ", rejected=" + rejected
+            + ", steals=" + steals
+            + ", wait=" + waitTime
+            + ", run=" + runTime + "}";
+    }
+}
@@ -0,0 +1,555 @@
+package com.akalea.sugar.internal;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of shared executors used by Parallel.
+ * Default pools are started lazily, use daemon threads and are shut down by a JVM shutdown hook.
+ * Any pool can be replaced by registering another ExecutorService under the same name.
+ * Default thread pools record queue wait and run times, which are exposed through stats and listeners.
+ */
+public class Pools {
+
+    /**
+     * Fixed pool sized to the number of cores, for CPU-bound work.
+     */
+    public static final String COMPUTE = "compute";
+
+    /**
+     * Elastic pool reusing idle threads, for blocking work.
+     */
+    public static final String BLOCKING = "blocking";
+
+    /**
+     * Work-stealing pool sized to the number of cores, for recursively split work.
+     */
+    public static final String FORK_JOIN = "forkJoin";
+
+    /**
+     * One virtual thread per task on Java 21+, falls back to an elastic pool of platform threads.
+     */
+    public static final String VIRTUAL = "virtual";
+
+    /**
+     * Timer shared by delayed and periodic work. Tasks run on its threads,
+     * so long-running work should be handed to another pool.
+     */
+    public static final String SCHEDULER = "scheduler";
+
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(5);
+
+    private static final Map<String, ExecutorService> pools = new ConcurrentHashMap<>();
+    private static final AtomicBoolean hookRegistered = new AtomicBoolean(false);
+    private static final List<PoolListener> listeners = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<long[]> taskStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    private Pools() {
+    }
+
+    /**
+     * Returns the number of available processors.
+     */
+    public static int cores() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns the shared pool for CPU-bound work, creating it on first use.
+     */
+    public static ExecutorService compute() {
+        return get(COMPUTE);
+    }
+
+    /**
+     * Returns the shared pool for blocking work, creating it on first use.
+     */
+    public static ExecutorService blocking() {
+        return get(BLOCKING);
+    }
+
+    /**
+     * Returns the shared work-stealing pool, creating it on first use.
+     * A replacement registered under FORK_JOIN must be a ForkJoinPool.
+     */
+    public static ForkJoinPool forkJoin() {
+        ExecutorService pool = get(FORK_JOIN);
+        if (!(pool instanceof ForkJoinPool))
+            throw new IllegalStateException("Executor registered as " + FORK_JOIN + " is not a ForkJoinPool");
+        return (ForkJoinPool) pool;
+    }
+
+    /**
+     * Returns the shared timer, creating it on first use.
+     * A replacement registered under SCHEDULER must be a ScheduledExecutorService.
+     */
+    public static ScheduledExecutorService scheduler() {
+        ExecutorService pool = get(SCHEDULER);
+        if (!(pool instanceof ScheduledExecutorService))
+            throw new IllegalStateException("Executor registered as " + SCHEDULER + " is not a ScheduledExecutorService");
+        return (ScheduledExecutorService) pool;
+    }
+
+    /**
+     * Returns the shared executor running each task on its own virtual thread, creating it on first use.
+     * On runtimes without virtual threads, tasks run on an elastic pool of daemon platform threads.
+     */
+    public static ExecutorService virtual() {
+        return get(VIRTUAL);
+    }
+
+    /**
+     * Returns true if the running JVM supports virtual threads.
+     */
+    public static boolean supportsVirtualThreads() {
+        return virtualThreadExecutorFactory() != null;
+    }
+
+    /**
+     * Returns the pool to use for the given level of concurrency.
+     * Concurrency above the core count implies blocking work and uses the elastic pool.
+     */
+    public static ExecutorService forConcurrency(int concurrency) {
+        return concurrency <= cores() ? compute() : blocking();
+    }
+
+    /**
+     * Returns the pool registered under the given name.
+     * Default pools are created on first access, unknown names throw.
+     */
+    public static ExecutorService get(String name) {
+        ExecutorService pool = pools.get(name);
+        if (pool != null && !pool.isShutdown())
+            return pool;
+        synchronized (pools) {
+            pool = pools.get(name);
+            if (pool != null && !pool.isShutdown())
+                return pool;
+            pool = create(name);
+            pools.put(name, pool);
+            registerShutdownHook();
+            return pool;
+        }
+    }
+
+    /**
+     * Registers an executor under the given name, replacing the current one.
+     * Returns the previously registered executor, or null. The previous executor is not shut down.
+     */
+    public static ExecutorService register(String name, ExecutorService executor) {
+        if (executor == null)
+            throw new IllegalArgumentException("Executor cannot be null");
+        registerShutdownHook();
+        return pools.put(name, executor);
+    }
+
+    /**
+     * Removes the executor registered under the given name without shutting it down.
+     */
+    public static ExecutorService unregister(String name) {
+        return pools.remove(name);
+    }
+
+    /**
+     * Returns true if an executor is currently registered under the given name.
+     */
+    public static boolean isRegistered(String name) {
+        return pools.containsKey(name);
+    }
+
+    /**
+     * Shuts down all registered executors, waiting up to the grace period for running tasks.
+     * Default pools are recreated on next access.
+     */
+    public static void shutdown(Duration grace) {
+        List<ExecutorService> executors;
+        synchronized (pools) {
+            executors = new ArrayList<>(pools.values());
+            pools.clear();
+        }
+        executors.forEach(ExecutorService::shutdown);
+        long deadline = System.nanoTime() + grace.toNanos();
+        for (ExecutorService executor : executors) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !executor.awaitTermination(remaining, TimeUnit.NANOSECONDS))
+                    executor.shutdownNow();
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Shuts down all registered executors with the default grace period.
+     */
+    public static void shutdown() {
+        shutdown(SHUTDOWN_GRACE);
+    }
+
+    // ==================== Instrumentation ====================
+
+    /**
+     * Adds a listener notified around every task of the default thread pools.
+     */
+    public static void addListener(PoolListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(PoolListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns a snapshot of the pool registered under the given name, or null if none is registered.
+     * Does not start a default pool.
+     */
+    public static PoolStats stats(String name) {
+        ExecutorService pool = pools.get(name);
+        if (pool == null)
+            return null;
+        int poolSize = 0;
+        int active = 0;
+        long queued = 0;
+        long steals = 0;
+        if (pool instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor executor = (ThreadPoolExecutor) pool;
+            poolSize = executor.getPoolSize();
+            active = executor.getActiveCount();
+            queued = executor.getQueue().size();
+        } else if (pool instanceof ForkJoinPool) {
+            ForkJoinPool executor = (ForkJoinPool) pool;
+            poolSize = executor.getPoolSize();
+            active = executor.getActiveThreadCount();
+            queued = executor.getQueuedTaskCount() + executor.getQueuedSubmissionCount();
+            steals = executor.getStealCount();
+        }
+        Metrics metrics = pool instanceof Instrumented ? ((Instrumented) pool).metrics() : null;
+        return metrics == null
+            ? new PoolStats(name, poolSize, active, queued, 0, 0, 0, steals, new Histogram(), new Histogram())
+            : new PoolStats(
+                name,
+                poolSize,
+                active,
+                queued,
+                metrics.completed.get(),
+                metrics.failed.get(),
+                metrics.rejected.get(),
+                steals,
+                metrics.waitTime.snapshot(),
+                metrics.runTime.snapshot());
+    }
+
+    /**
+     * Returns snapshots of all registered pools by name.
+     */
+    public static Map<String, PoolStats> stats() {
+        Map<String, PoolStats> stats = new LinkedHashMap<>();
+        for (String name : new ArrayList<>(pools.keySet())) {
+            PoolStats snapshot = stats(name);
+            if (snapshot != null)
+                stats.put(name, snapshot);
+        }
+        return stats;
+    }
+
+    /**
+     * Creates a thread factory producing named daemon threads.
+     */
+    public static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger(0);
+        return runnable -> {
+            Thread thread = new Thread(runnable, "sugar-" + prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ExecutorService create(String name) {
+        switch (name) {
+            case COMPUTE:
+                return new InstrumentedPool(
+                    COMPUTE,
+                    cores(),
+                    cores(),
+                    0L,
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>());
+            case BLOCKING:
+                return new InstrumentedPool(
+                    BLOCKING,
+                    0,
+                    Integer.MAX_VALUE,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new SynchronousQueue<>());
+            case FORK_JOIN:
+                AtomicInteger counter = new AtomicInteger(0);
+                return new ForkJoinPool(
+                    cores(),
+                    pool -> {
+                        ForkJoinWorkerThread thread =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("sugar-" + FORK_JOIN + "-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    null,
+                    false);
+            case SCHEDULER:
+                ScheduledThreadPoolExecutor scheduler = new InstrumentedScheduler(Math.max(2, cores()));
+                scheduler.setRemoveOnCancelPolicy(true);
+                return scheduler;
+            case VIRTUAL:
+                ExecutorService virtual = newVirtualThreadExecutor();
+                return virtual != null
+                    ? virtual
+                    : new InstrumentedPool(
+                        VIRTUAL,
+                        0,
+                        Integer.MAX_VALUE,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new SynchronousQueue<>());
+            default:
+                throw new IllegalArgumentException("No executor registered as " + name);
+        }
+    }
+
+    /**
+     * Looked up reflectively so the library keeps compiling for Java 9 while using virtual threads when available.
+     */
+    private static Method virtualThreadExecutorFactory() {
+        try {
+            return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        Method factory = virtualThreadExecutorFactory();
+        if (factory == null)
+            return null;
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static void registerShutdownHook() {
+        if (hookRegistered.compareAndSet(false, true))
+            Runtime.getRuntime().addShutdownHook(new Thread(Pools::shutdown, "sugar-pools-shutdown"));
+    }
+
+    private interface Instrumented {
+        Metrics metrics();
+    }
+
+    /**
+     * Counters and timings of one pool, fed by its beforeExecute and afterExecute hooks.
+     */
+    private static class Metrics {
+
+        final String name;
+        final Histogram waitTime = new Histogram();
+        final Histogram runTime = new Histogram();
+        final AtomicLong completed = new AtomicLong(0);
+        final AtomicLong failed = new AtomicLong(0);
+        final AtomicLong rejected = new AtomicLong(0);
+
+        Metrics(String name) {
+            this.name = name;
+        }
+
+        void started(long waitNanos) {
+            long now = System.nanoTime();
+            taskStart.get()[0] = now;
+            waitTime.record(waitNanos);
+            for (PoolListener listener : listeners) {
+                try {
+                    listener.onStart(name, waitNanos);
+                } catch (RuntimeException e) {
+                    // listeners must not break the pool
+                }
+            }
+        }
+
+        void finished(Runnable task, Throwable error) {
+            long runNanos = System.nanoTime() - taskStart.get()[0];
+            Throwable failure = error != null ? error : failureOf(task);
+            runTime.record(runNanos);
+            if (failure != null)
+                failed.incrementAndGet();
+            else
+                completed.incrementAndGet();
+            for (PoolListener listener : listeners) {
+                try {
+                    listener.onComplete(name, runNanos, failure);
+                } catch (RuntimeException e) {
+                    // listeners must not break the pool
+                }
+            }
+        }
+
+        RejectedExecutionHandler rejections() {
+            RejectedExecutionHandler abort = new ThreadPoolExecutor.AbortPolicy();
+            return (task, executor) -> {
+                rejected.incrementAndGet();
+                for (PoolListener listener : listeners) {
+                    try {
+                        listener.onReject(name);
+                    } catch (RuntimeException e) {
+                        // listeners must not break the pool
+                    }
+                }
+                abort.rejectedExecution(task, executor);
+            };
+        }
+
+        /**
+         * Futures swallow the exceptions of their task, so completed futures are inspected for a failure.
+         */
+        private static Throwable failureOf(Runnable task) {
+            if (!(task instanceof Future) || !((Future<?>) task).isDone())
+                return null;
+            try {
+                ((Future<?>) task).get();
+                return null;
+            } catch (CancellationException e) {
+                return null;
+            } catch (ExecutionException e) {
+                return e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Task wrapper remembering when it was queued.
+     */
+    private static class Queued implements Runnable {
+
+        final Runnable task;
+        final long queuedAt = System.nanoTime();
+
+        Queued(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    private static class InstrumentedPool extends ThreadPoolExecutor implements Instrumented {
+
+        private final Metrics metrics;
+
+        InstrumentedPool(
+            String name,
+            int coreSize,
+            int maxSize,
+            long keepAlive,
+            TimeUnit unit,
+            BlockingQueue<Runnable> queue) {
+            this(new Metrics(name), coreSize, maxSize, keepAlive, unit, queue);
+        }
+
+        private InstrumentedPool(
+            Metrics metrics,
+            int coreSize,
+            int maxSize,
+            long keepAlive,
+            TimeUnit unit,
+            BlockingQueue<Runnable> queue) {
+            super(coreSize, maxSize, keepAlive, unit, queue, daemonThreads(metrics.name), metrics.rejections());
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Metrics metrics() {
+            return metrics;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            super.execute(new Queued(command));
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable task) {
+            metrics.started(task instanceof Queued ? System.nanoTime() - ((Queued) task).queuedAt : 0);
+        }
+
+        @Override
+        protected void afterExecute(Runnable task, Throwable error) {
+            metrics.finished(task instanceof Queued ? ((Queued) task).task : task, error);
+        }
+    }
+
+    /**
+     * Scheduler whose wait time is the lateness of each run relative to its scheduled time.
+     */
+    private static class InstrumentedScheduler extends ScheduledThreadPoolExecutor implements Instrumented {
+
+        private final Metrics metrics;
+
+        InstrumentedScheduler(int coreSize) {
+            this(new Metrics(SCHEDULER), coreSize);
+        }
+
+        private InstrumentedScheduler(Metrics metrics, int coreSize) {
+            super(coreSize, daemonThreads(SCHEDULER), metrics.rejections());
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Metrics metrics() {
+            return metrics;
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable task) {
+            long lateness = task instanceof RunnableScheduledFuture
+                ? -((RunnableScheduledFuture<?>) task).getDelay(TimeUnit.NANOSECONDS)
+                : 0;
+            metrics.started(Math.max(0, lateness));
+        }
+
+        @Override
+        protected void afterExecute(Runnable task, Throwable error) {
+            metrics.finished(task, error);
+        }
+    }
+}
@@ -410,6 +410,50 @@ public class Range<T extends Comparable<T>> {
         return result;
     }
 
+    /**
+     * Converts an integer range to an IntList, without boxing.
+     */
+    public static IntList toInts(Range<Integer> range) {
+        return toInts(range, 1);
+    }
+
+    public static IntList toInts(Range<Integer> range, int step) {
+        if (range == null || !range.hasLowerBound() || !range.hasUpperBound() || step <= 0) {
+            return new IntList();
+        }
+
+        long start = range.lowerInclusive ? range.lower : range.lower + 1L;
+        long end = range.upperInclusive ? range.upper : range.upper - 1L;
+
+        IntList result = new IntList(start <= end ? (int) Math.min(Integer.MAX_VALUE - 8, (end - start) / step + 1) : 0);
+        for (long i = start; i <= end; i += step) {
+            result.add((int) i);
+        }
+        return result;
+    }
+
+    /**
+     * Converts a long range to a LongList, without boxing.
+     */
+    public static LongList toLongs(Range<Long> range) {
+        return toLongs(range, 1L);
+    }
+
+    public static LongList toLongs(Range<Long> range, long step) {
+        if (range == null || !range.hasLowerBound() || !range.hasUpperBound() || step <= 0) {
+            return new LongList();
+        }
+
+        LongList result = new LongList();
+        long start = range.lowerInclusive ? range.lower : range.lower + 1;
+        long end = range.upperInclusive ? range.upper : range.upper - 1;
+
+        for (long i = start; i <= end; i += step) {
+            result.add(i);
+        }
+        return result;
+    }
+
     // ==================== Object Methods ====================
 
     @Override
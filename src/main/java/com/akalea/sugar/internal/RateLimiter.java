@@ -0,0 +1,207 @@
+package com.akalea.sugar.internal;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A lock-free token bucket rate limiter.
+ * The bucket state is a single timestamp: the time at which the bucket will be full again
+ * (generic cell rate algorithm). Acquiring permits pushes that timestamp forward with one CAS,
+ * so concurrent callers never both take the same permit and no call is dropped silently.
+ */
+public class RateLimiter {
+
+    private final double permitsPerSecond;
+    private final int maxBurst;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    private RateLimiter(double permitsPerSecond, int maxBurst) {
+        if (permitsPerSecond <= 0)
+            throw new IllegalArgumentException("Rate must be positive");
+        if (maxBurst <= 0)
+            throw new IllegalArgumentException("Burst must be positive");
+        this.permitsPerSecond = permitsPerSecond;
+        this.maxBurst = maxBurst;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacityNanos = intervalNanos * maxBurst;
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Creates a limiter spacing permits evenly, with no burst allowance.
+     */
+    public static RateLimiter smooth(double permitsPerSecond) {
+        return new RateLimiter(permitsPerSecond, 1);
+    }
+
+    /**
+     * Creates a limiter allowing up to maxBurst permits at once after an idle period.
+     * The bucket starts full.
+     */
+    public static RateLimiter bursty(double permitsPerSecond, int maxBurst) {
+        return new RateLimiter(permitsPerSecond, maxBurst);
+    }
+
+    public double getRate() {
+        return permitsPerSecond;
+    }
+
+    public int getMaxBurst() {
+        return maxBurst;
+    }
+
+    // ==================== Acquisition ====================
+
+    /**
+     * Acquires a permit if one is available now.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquires the given number of permits if they are available now.
+     */
+    public boolean tryAcquire(int permits) {
+        return tryAcquire(permits, Duration.ZERO);
+    }
+
+    /**
+     * Acquires the given number of permits if they become available within the timeout,
+     * waiting for them if needed. Returns false without consuming anything otherwise.
+     */
+    public boolean tryAcquire(int permits, Duration timeout) {
+        long wait = reserve(permits, timeout.toNanos());
+        if (wait < 0)
+            return false;
+        sleep(wait);
+        return true;
+    }
+
+    /**
+     * Acquires a permit, waiting until it is available.
+     * Returns the time spent waiting.
+     */
+    public Duration acquire() {
+        return acquire(1);
+    }
+
+    /**
+     * Acquires the given number of permits, waiting until they are available.
+     * Returns the time spent waiting.
+     */
+    public Duration acquire(int permits) {
+        long wait = reserve(permits, Long.MAX_VALUE);
+        sleep(wait);
+        return Duration.ofNanos(wait);
+    }
+
+    /**
+     * Reserves the given number of permits and returns a future completed when they are available.
+     * No thread waits in the meantime: completion is triggered by the shared scheduler.
+     */
+    public CompletableFuture<Void> acquireAsync(int permits) {
+        long wait = reserve(permits, Long.MAX_VALUE);
+        if (wait == 0)
+            return CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Pools.scheduler().schedule(() -> result.complete(null), wait, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * Reserves a permit asynchronously.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        return acquireAsync(1);
+    }
+
+    // ==================== Decorators ====================
+
+    /**
+     * Wraps a supplier so that each call acquires a permit first.
+     */
+    public <T> Supplier<T> limit(Supplier<T> supplier) {
+        return limit(supplier, 1);
+    }
+
+    /**
+     * Wraps a supplier so that each call acquires the given number of permits first.
+     */
+    public <T> Supplier<T> limit(Supplier<T> supplier, int permits) {
+        return () -> {
+            acquire(permits);
+            return supplier.get();
+        };
+    }
+
+    /**
+     * Wraps a function so that each call acquires a permit first.
+     */
+    public <T, R> Function<T, R> limit(Function<T, R> function) {
+        return limit(function, 1);
+    }
+
+    /**
+     * Wraps a function so that each call acquires the given number of permits first.
+     */
+    public <T, R> Function<T, R> limit(Function<T, R> function, int permits) {
+        return t -> {
+            acquire(permits);
+            return function.apply(t);
+        };
+    }
+
+    /**
+     * Wraps a runnable so that each call acquires a permit first.
+     */
+    public Runnable limit(Runnable runnable) {
+        return () -> {
+            acquire(1);
+            runnable.run();
+        };
+    }
+
+    /**
+     * Moves the bucket forward by the cost of the permits if the caller would wait at most maxWaitNanos.
+     * Returns the wait in nanoseconds, or -1 if the permits were not reserved.
+     */
+    private long reserve(int permits, long maxWaitNanos) {
+        if (permits <= 0)
+            throw new IllegalArgumentException("Permits must be positive");
+        long cost = intervalNanos * permits;
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long base = current - now > 0 ? current : now;
+            long next = base + cost;
+            long wait = Math.max(0, next - now - capacityNanos);
+            if (wait > maxWaitNanos)
+                return -1;
+            if (fullAt.compareAndSet(current, next))
+                return wait;
+        }
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0)
+            return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Rate limiter interrupted", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimiter{rate=" + permitsPerSecond + "/s, maxBurst=" + maxBurst + "}";
+    }
+}
@@ -0,0 +1,285 @@
+package com.akalea.sugar.internal;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Structured scope for concurrent subtasks.
+ * Subtasks are forked into the scope, joined once, and never outlive it: the first failure
+ * cancels all siblings, an optional deadline cancels everything still running, and close waits
+ * until every subtask thread has left. Subtasks forking their own scope pass their deadline on.
+ *
+ * <pre>
+ * try (Scope scope = Parallel.scope(Duration.ofSeconds(2))) {
+ *     Subtask&lt;User&gt; user = scope.fork(() -&gt; users.get(id));
+ *     Subtask&lt;List&lt;Order&gt;&gt; orders = scope.fork(() -&gt; orders.find(id));
+ *     scope.join();
+ *     return new Profile(user.get(), orders.get());
+ * }
+ * </pre>
+ */
+public class Scope implements AutoCloseable {
+
+    private static final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+    private final List<Subtask<?>> subtasks = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final ScheduledFuture<?> deadlineTimer;
+    private int running = 0;
+    private boolean closed = false;
+
+    private Scope(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        Scope parent = current.get();
+        long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        if (parent != null && parent.hasDeadline)
+            deadline = timeout == null ? parent.deadlineNanos : Math.min(deadline, parent.deadlineNanos);
+        this.hasDeadline = timeout != null || (parent != null && parent.hasDeadline);
+        this.deadlineNanos = deadline;
+        this.deadlineTimer = hasDeadline
+            ? Pools.scheduler().schedule(this::expire, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+            : null;
+    }
+
+    /**
+     * Opens a scope running subtasks on the blocking pool, inheriting the deadline of an enclosing scope if any.
+     */
+    public static Scope open() {
+        return new Scope(Pools.blocking(), null);
+    }
+
+    /**
+     * Opens a scope whose subtasks are cancelled once the timeout elapses, or at the enclosing deadline if earlier.
+     */
+    public static Scope open(Duration timeout) {
+        return new Scope(Pools.blocking(), timeout);
+    }
+
+    /**
+     * Opens a scope running subtasks on the given executor.
+     */
+    public static Scope open(ExecutorService executor, Duration timeout) {
+        return new Scope(executor, timeout);
+    }
+
+    // ==================== Subtasks ====================
+
+    /**
+     * Starts a subtask. If the scope already failed, the subtask is cancelled without running.
+     */
+    public <T> Subtask<T> fork(Supplier<T> supplier) {
+        Subtask<T> subtask = new Subtask<>(supplier);
+        synchronized (this) {
+            if (closed)
+                throw new IllegalStateException("Scope is closed");
+            running++;
+        }
+        subtasks.add(subtask);
+        if (failure.get() != null)
+            subtask.cancel(true);
+        try {
+            executor.execute(subtask.task);
+        } catch (RejectedExecutionException e) {
+            subtask.cancel(false);
+            subtask.exited();
+            throw e;
+        }
+        return subtask;
+    }
+
+    /**
+     * Starts a subtask with no result.
+     */
+    public Subtask<Void> fork(Runnable runnable) {
+        return fork(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits for all subtasks. Throws the first failure, or a timeout if the deadline passed,
+     * in which case the remaining subtasks have been cancelled.
+     */
+    public void join() {
+        for (Subtask<?> subtask : subtasks) {
+            try {
+                subtask.future().get();
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Scope interrupted", e);
+            } catch (ExecutionException | CancellationException e) {
+                break;
+            }
+        }
+        Throwable error = failure.get();
+        if (error instanceof TimeoutException)
+            throw new RuntimeException("Scope deadline exceeded", error);
+        if (error != null)
+            throw new RuntimeException(error);
+    }
+
+    /**
+     * Returns the time left before the deadline, or null if the scope has none.
+     */
+    public Duration remaining() {
+        return hasDeadline ? Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime())) : null;
+    }
+
+    /**
+     * Returns true once a subtask failed or the deadline passed.
+     */
+    public boolean isFailed() {
+        return failure.get() != null;
+    }
+
+    /**
+     * Cancels unfinished subtasks and waits until every subtask thread has left.
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        if (deadlineTimer != null)
+            deadlineTimer.cancel(false);
+        boolean interrupted = false;
+        synchronized (this) {
+            closed = true;
+            while (running > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private void fail(Throwable error) {
+        if (failure.compareAndSet(null, error))
+            cancelAll();
+    }
+
+    private void expire() {
+        for (Subtask<?> subtask : subtasks) {
+            if (!subtask.task.isDone()) {
+                fail(new TimeoutException("Deadline exceeded"));
+                return;
+            }
+        }
+    }
+
+    private void cancelAll() {
+        subtasks.forEach(subtask -> subtask.cancel(true));
+    }
+
+    private synchronized void exited() {
+        running--;
+        notifyAll();
+    }
+
+    /**
+     * A task forked in a scope. Its result is available once the scope is joined.
+     */
+    public class Subtask<T> {
+
+        private final Task task;
+
+        private Subtask(Supplier<T> supplier) {
+            this.task = new Task(supplier);
+        }
+
+        /**
+         * Returns the result of a completed subtask.
+         * Throws if the subtask failed, was cancelled, or is still running.
+         */
+        public T get() {
+            if (!task.isDone())
+                throw new IllegalStateException("Subtask has not completed, join the scope first");
+            try {
+                return task.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            } catch (CancellationException e) {
+                throw new IllegalStateException("Subtask was cancelled", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Returns true if the subtask completed successfully.
+         */
+        public boolean isSuccess() {
+            return task.isDone() && !task.isCancelled() && task.error == null;
+        }
+
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        /**
+         * Returns the exception thrown by the subtask, or null.
+         */
+        public Throwable getException() {
+            return task.error;
+        }
+
+        private FutureTask<T> future() {
+            return task;
+        }
+
+        private void cancel(boolean interrupt) {
+            task.cancel(interrupt);
+        }
+
+        private void exited() {
+            Scope.this.exited();
+        }
+
+        private class Task extends FutureTask<T> {
+
+            private volatile Throwable error;
+
+            Task(Supplier<T> supplier) {
+                super(supplier::get);
+            }
+
+            @Override
+            public void run() {
+                Scope previous = current.get();
+                current.set(Scope.this);
+                try {
+                    super.run();
+                } finally {
+                    current.set(previous);
+                    exited();
+                }
+            }
+
+            @Override
+            protected void setException(Throwable t) {
+                error = t;
+                super.setException(t);
+                fail(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.akalea.sugar.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy sequence with the vocabulary of Collections.
+ * Intermediate operations only describe the work; a terminal operation pulls elements through
+ * the whole chain in a single pass, without intermediate lists, and stops as soon as the answer
+ * is known. A sequence built on a collection can be traversed several times, each traversal
+ * reading the collection again. Not thread-safe.
+ *
+ * <pre>
+ * List&lt;String&gt; names = seq(users)
+ *     .filter(User::isActive)
+ *     .map(User::getName)
+ *     .distinct()
+ *     .take(10)
+ *     .toList();
+ * </pre>
+ */
+public class Seq<T> implements Iterable<T> {
+
+    private final Supplier<Iterator<T>> source;
+
+    private Seq(Supplier<Iterator<T>> source) {
+        this.source = source;
+    }
+
+    // ==================== Sources ====================
+
+    /**
+     * Creates a sequence reading the iterable on every traversal. A null iterable gives an empty sequence.
+     */
+    public static <T> Seq<T> of(Iterable<T> elements) {
+        if (elements == null)
+            return empty();
+        return new Seq<>(elements::iterator);
+    }
+
+    @SafeVarargs
+    public static <T> Seq<T> of(T... elements) {
+        return of(java.util.Arrays.asList(elements));
+    }
+
+    /**
+     * Creates a sequence over an iterator. It can only be traversed once.
+     */
+    public static <T> Seq<T> of(Iterator<T> iterator) {
+        return new Seq<>(() -> iterator);
+    }
+
+    public static <T> Seq<T> empty() {
+        return new Seq<>(Collections::emptyIterator);
+    }
+
+    /**
+     * Creates an infinite sequence seed, f(seed), f(f(seed)), ... Use take or takeWhile to bound it.
+     */
+    public static <T> Seq<T> iterate(T seed, UnaryOperator<T> f) {
+        return new Seq<>(() -> new Cursor<T>() {
+            private T current = seed;
+            private boolean started = false;
+
+            @Override
+            protected boolean advance() {
+                if (started)
+                    current = f.apply(current);
+                started = true;
+                return emit(current);
+            }
+        });
+    }
+
+    /**
+     * Creates an infinite sequence of supplied values.
+     */
+    public static <T> Seq<T> generate(Supplier<T> supplier) {
+        return new Seq<>(() -> new Cursor<T>() {
+            @Override
+            protected boolean advance() {
+                return emit(supplier.get());
+            }
+        });
+    }
+
+    /**
+     * Creates the sequence from, from + 1, ..., toExclusive - 1.
+     */
+    public static Seq<Integer> range(int from, int toExclusive) {
+        return new Seq<>(() -> new Cursor<Integer>() {
+            private int next = from;
+
+            @Override
+            protected boolean advance() {
+                return next < toExclusive && emit(next++);
+            }
+        });
+    }
+
+    // ==================== Intermediate Operations ====================
+
+    public Seq<T> filter(Predicate<T> predicate) {
+        return new Seq<>(() -> {
+            Iterator<T> it = source.get();
+            return new Cursor<T>() {
+                @Override
+                protected boolean advance() {
+                    while (it.hasNext()) {
+                        T element = it.next();
+                        if (predicate.test(element))
+                            return emit(element);
+                    }
+                    return false;
+                }
+            };
+        });
+    }
+
+    public Seq<T> notNull() {
+        return filter(e -> e != null);
+    }
+
+    public <R> Seq<R> map(Function<T, R> function) {
+        return new Seq<>(() -> {
+            Iterator<T> it = source.get();
+            return new Cursor<R>() {
+                @Override
+                protected boolean advance() {
+                    return it.hasNext() && emit(function.apply(it.next()));
+                }
+            };
+        });
+    }
+
+    public <R> Seq<R> flatMap(Function<T, ? extends Iterable<R>> function) {
+        return new Seq<>(() -> {
+            Iterator<T> it = source.get();
+            return new Cursor<R>() {
+                private Iterator<R> inner = Collections.emptyIterator();
+
+                @Override
+                protected boolean advance() {
+                    while (!inner.hasNext()) {
+                        if (!it.hasNext())
+                            return false;
+                        Iterable<R> next = function.apply(it.next());
+                        inner = next == null ? Collections.emptyIterator() : next.iterator();
+                    }
+                    return emit(inner.next());
+                }
+            };
+        });
+    }
+
+    /**
+     * Passes each element to the consumer as it flows through.
+     */
+    public Seq<T> peek(Consumer<T> consumer) {
+        return map(e -> {
+            consumer.accept(e);
+            return e;
+        });
+    }
+
+    public Seq<T> distinct() {
+        return distinctBy(Function.identity());
+    }
+
+    /**
+     * Keeps the first element of each key.
+     */
+    public <K> Seq<T> distinctBy(Function<T, K> keyExtractor) {
+        return new Seq<>(() -> {
+            Set<K> seen = new HashSet<>();
+            return filter(e -> seen.add(keyExtractor.apply(e))).iterator();
+        });
+    }
+
+    public Seq<T> takeWhile(Predicate<T> predicate) {
+        return new Seq<>(() -> {
+            Iterator<T> it = source.get();
+            return new Cursor<T>() {
+                @Override
+                protected boolean advance() {
+                    if (!it.hasNext())
+                        return false;
+                    T element = it.next();
+                    return predicate.test(element) && emit(element);
+                }
+            };
+        });
+    }
+
+    public Seq<T> dropWhile(Predicate<T> predicate) {
+        return new Seq<>(() -> {
+            Iterator<T> it = source.get();
+            return new Cursor<T>() {
+                private boolean dropping = true;
+
+                @Override
+                protected boolean advance() {
+                    while (it.hasNext()) {
+                        T element = it.next();
+                        if (dropping && predicate.test(element))
+                            continue;
+                        dropping = false;
+                        return emit(element);
+                    }
+                    return false;
+                }
+            };
+        });
+    }
+
+    /**
+     * Keeps the first n elements. The source is not read beyond them.
+     */
+    public Seq<T> take(int n) {
+        return new Seq<>(() -> {
+            Iterator<T> it = source.get();
+            return new Cursor<T>() {
+                private int taken = 0;
+
+                @Override
+                protected boolean advance() {
+                    return taken++ < n && it.hasNext() && emit(it.next());
+                }
+            };
+        });
+    }
+
+    public Seq<T> drop(int n) {
+        return new Seq<>(() -> {
+            Iterator<T> it = source.get();
+            for (int i = 0; i < n && it.hasNext(); i++)
+                it.next();
+            return it;
+        });
+    }
+
+    /**
+     * Sorts elements by natural order. Sorting needs every element, so the traversal buffers them once.
+     */
+    @SuppressWarnings("unchecked")
+    public Seq<T> sorted() {
+        // elements are required to be Comparable, as with List.sort(null)
+        return sorted((Comparator<T>) Comparator.<Comparable<Object>> naturalOrder());
+    }
+
+    public Seq<T> sorted(Comparator<T> comparator) {
+        return new Seq<>(() -> {
+            List<T> elements = toList();
+            elements.sort(comparator);
+            return elements.iterator();
+        });
+    }
+
+    public Seq<T> concat(Iterable<T> other) {
+        return new Seq<>(() -> {
+            Iterator<T> first = source.get();
+            return new Cursor<T>() {
+                private Iterator<T> current = first;
+                private boolean switched = false;
+
+                @Override
+                protected boolean advance() {
+                    if (!current.hasNext() && !switched) {
+                        current = other.iterator();
+                        switched = true;
+                    }
+                    return current.hasNext() && emit(current.next());
+                }
+            };
+        });
+    }
+
+    // ==================== Terminal Operations ====================
+
+    @Override
+    public Iterator<T> iterator() {
+        return source.get();
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public List<T> toList() {
+        List<T> result = new ArrayList<>();
+        forEach(result::add);
+        return result;
+    }
+
+    public Set<T> toSet() {
+        Set<T> result = new HashSet<>();
+        forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Collects elements into a map. Later elements replace earlier ones with the same key.
+     */
+    public <K, V> Map<K, V> toMap(Function<T, K> keys, Function<T, V> values) {
+        Map<K, V> result = new LinkedHashMap<>();
+        forEach(e -> result.put(keys.apply(e), values.apply(e)));
+        return result;
+    }
+
+    public <K> Map<K, List<T>> groupBy(Function<T, K> keys) {
+        Map<K, List<T>> result = new LinkedHashMap<>();
+        forEach(e -> result.computeIfAbsent(keys.apply(e), k -> new ArrayList<>()).add(e));
+        return result;
+    }
+
+    /**
+     * Returns the first element, or null.
+     */
+    public T first() {
+        Iterator<T> it = iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    /**
+     * Returns the first element matching the predicate, or null.
+     */
+    public T findFirst(Predicate<T> predicate) {
+        return filter(predicate).first();
+    }
+
+    public boolean any(Predicate<T> predicate) {
+        for (T element : this)
+            if (predicate.test(element))
+                return true;
+        return false;
+    }
+
+    public boolean all(Predicate<T> predicate) {
+        for (T element : this)
+            if (!predicate.test(element))
+                return false;
+        return true;
+    }
+
+    public boolean none(Predicate<T> predicate) {
+        return !any(predicate);
+    }
+
+    public long count() {
+        long count = 0;
+        for (Iterator<T> it = iterator(); it.hasNext(); it.next())
+            count++;
+        return count;
+    }
+
+    /**
+     * Combines elements pairwise from the left. Returns null for an empty sequence.
+     */
+    public T reduce(BiFunction<T, T, T> function) {
+        Iterator<T> it = iterator();
+        if (!it.hasNext())
+            return null;
+        T result = it.next();
+        while (it.hasNext())
+            result = function.apply(result, it.next());
+        return result;
+    }
+
+    /**
+     * Accumulates elements into a value starting from the initial one.
+     */
+    public <R> R fold(R initial, BiFunction<R, T, R> function) {
+        R result = initial;
+        for (T element : this)
+            result = function.apply(result, element);
+        return result;
+    }
+
+    /**
+     * Returns the smallest element, or null for an empty sequence.
+     */
+    public T min(Comparator<T> comparator) {
+        return reduce((a, b) -> comparator.compare(b, a) < 0 ? b : a);
+    }
+
+    /**
+     * Returns the largest element, or null for an empty sequence.
+     */
+    public T max(Comparator<T> comparator) {
+        return reduce((a, b) -> comparator.compare(b, a) > 0 ? b : a);
+    }
+
+    /**
+     * Iterator computing one element ahead on demand.
+     */
+    private abstract static class Cursor<T> implements Iterator<T> {
+
+        private T next;
+        private Boolean ready;
+
+        /**
+         * Moves to the next element, passing it to emit. Returns false at the end.
+         */
+        protected abstract boolean advance();
+
+        protected boolean emit(T element) {
+            next = element;
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (ready == null)
+                ready = advance();
+            return ready;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            T element = next;
+            next = null;
+            ready = null;
+            return element;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.akalea.sugar.internal;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * An iterator mapping a source iterator in parallel with a bounded window of in-flight elements.
+ * The source is only pulled when a result is consumed, so a slow consumer throttles the producer.
+ * A consumer waiting on an element that no pool thread has started runs it itself, so the map
+ * cannot deadlock when used from a worker of the pool it submits to.
+ * Not thread-safe: a single consumer is expected.
+ */
+public class StreamingMap<T, R> implements Iterator<R>, AutoCloseable {
+
+    private final Iterator<T> source;
+    private final Function<T, R> function;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final boolean ordered;
+
+    private final ArrayDeque<Task> pending = new ArrayDeque<>();
+    private final BlockingQueue<Future<R>> completed = new LinkedBlockingQueue<>();
+    private boolean closed = false;
+
+    private StreamingMap(
+        Iterator<T> source,
+        Function<T, R> function,
+        Executor executor,
+        int maxInFlight,
+        boolean ordered) {
+        if (maxInFlight <= 0)
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        this.source = source;
+        this.function = function;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+    }
+
+    /**
+     * Creates an iterator emitting results in source order.
+     */
+    public static <T, R> StreamingMap<T, R> ordered(
+        Iterator<T> source,
+        Function<T, R> function,
+        Executor executor,
+        int maxInFlight) {
+        return new StreamingMap<>(source, function, executor, maxInFlight, true);
+    }
+
+    /**
+     * Creates an iterator emitting results as soon as they complete.
+     */
+    public static <T, R> StreamingMap<T, R> unordered(
+        Iterator<T> source,
+        Function<T, R> function,
+        Executor executor,
+        int maxInFlight) {
+        return new StreamingMap<>(source, function, executor, maxInFlight, false);
+    }
+
+    /**
+     * Returns the number of elements submitted but not yet consumed.
+     */
+    public int inFlight() {
+        return pending.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        fill();
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Future<R> future;
+        try {
+            future = ordered ? runInline(pending.peekFirst()) : nextCompleted();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Streaming map interrupted", e);
+        }
+        R result = await(future);
+        pending.remove(future);
+        fill();
+        return result;
+    }
+
+    /**
+     * Cancels in-flight elements and stops pulling from the source.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pending.forEach(f -> f.cancel(true));
+        pending.clear();
+        completed.clear();
+    }
+
+    private void fill() {
+        while (!closed && pending.size() < maxInFlight && source.hasNext()) {
+            T element = source.next();
+            Task task = new Task(element);
+            pending.addLast(task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.reject(e);
+            }
+        }
+    }
+
+    /**
+     * Runs the task on the calling thread unless a pool thread already started it.
+     */
+    private Task runInline(Task task) {
+        task.run();
+        return task;
+    }
+
+    private Future<R> nextCompleted() throws InterruptedException {
+        Future<R> future = completed.poll();
+        if (future != null)
+            return future;
+        for (Task task : pending) {
+            if (!task.isDone()) {
+                task.run();
+                break;
+            }
+        }
+        return completed.take();
+    }
+
+    private R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Streaming map interrupted", e);
+        } catch (ExecutionException e) {
+            close();
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private class Task extends FutureTask<R> {
+
+        Task(T element) {
+            super(() -> function.apply(element));
+        }
+
+        void reject(RejectedExecutionException e) {
+            setException(e);
+        }
+
+        @Override
+        protected void done() {
+            if (!ordered)
+                completed.add(this);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.akalea.sugar.internal;
+
+import java.util.Optional;
+
+/**
+ * Outcome of one task of a gather: its value, the exception it threw, or the fact that it
+ * did not finish before the deadline.
+ */
+public class TaskResult<T> {
+
+    public enum Status {
+        COMPLETED,
+        FAILED,
+        TIMED_OUT
+    }
+
+    private final Status status;
+    private final T value;
+    private final Throwable exception;
+
+    private TaskResult(Status status, T value, Throwable exception) {
+        this.status = status;
+        this.value = value;
+        this.exception = exception;
+    }
+
+    public static <T> TaskResult<T> completed(T value) {
+        return new TaskResult<>(Status.COMPLETED, value, null);
+    }
+
+    public static <T> TaskResult<T> failed(Throwable exception) {
+        return new TaskResult<>(Status.FAILED, null, exception);
+    }
+
+    public static <T> TaskResult<T> timedOut() {
+        return new TaskResult<>(Status.TIMED_OUT, null, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+
+    public boolean isFailed() {
+        return status == Status.FAILED;
+    }
+
+    public boolean isTimedOut() {
+        return status == Status.TIMED_OUT;
+    }
+
+    /**
+     * Returns the value of a completed task, or null.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the exception thrown by a failed task, or null.
+     */
+    public Throwable getException() {
+        return exception;
+    }
+
+    /**
+     * Returns the value if the task completed with a non-null value.
+     */
+    public Optional<T> toOptional() {
+        return Optional.ofNullable(value);
+    }
+
+    @Override
+    public String toString() {
+        switch (status) {
+            case COMPLETED:
+                return "Completed(" + value + ")";
+            case FAILED:
+                return "Failed(" + exception + ")";
+            default:
+                return "TimedOut";
+        }
+    }
+}
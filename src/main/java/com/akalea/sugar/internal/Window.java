@@ -0,0 +1,167 @@
+package com.akalea.sugar.internal;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * A read-only view of a range of a list: an offset and a size over the source, without copying.
+ * Reads go through to the source, so structural changes to the source invalidate the window.
+ * A window can be moved along the source with slide, which makes a sliding pass over n elements
+ * allocate nothing per step. Use toList to take a copy that outlives the source.
+ */
+public class Window<T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<T> source;
+    private int offset;
+    private final int size;
+
+    private Window(List<T> source, int offset, int size) {
+        this.source = source;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * Creates a view of size elements of the source starting at offset.
+     */
+    public static <T> Window<T> of(List<T> source, int offset, int size) {
+        if (offset < 0 || size < 0 || size > source.size() - offset)
+            throw new IndexOutOfBoundsException(
+                "Window [" + offset + ", " + (offset + size) + ") outside of list of size " + source.size());
+        return new Window<>(indexed(source), offset, size);
+    }
+
+    /**
+     * Returns a view of every window of size elements, moving by step. Windows are created
+     * as they are read, so the view itself holds no window.
+     */
+    public static <T> List<List<T>> sliding(List<T> source, int size, int step) {
+        if (size <= 0 || step <= 0)
+            throw new IllegalArgumentException("Size and step must be positive");
+        List<T> elements = indexed(source);
+        int count = elements.size() < size ? 0 : (elements.size() - size) / step + 1;
+        return new Windows<>(elements, size, step, count, false);
+    }
+
+    /**
+     * Returns a view of consecutive chunks of size elements. The last chunk may be shorter.
+     */
+    public static <T> List<List<T>> chunks(List<T> source, int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Size must be positive");
+        List<T> elements = indexed(source);
+        int count = elements.isEmpty() ? 0 : (elements.size() - 1) / size + 1;
+        return new Windows<>(elements, size, size, count, true);
+    }
+
+    /**
+     * Passes every window of size elements, moving by step, to the consumer. The same window
+     * instance is moved from one call to the next, so the consumer must copy it to keep it.
+     */
+    public static <T> void forEachSliding(List<T> source, int size, int step, Consumer<List<T>> consumer) {
+        if (size <= 0 || step <= 0)
+            throw new IllegalArgumentException("Size and step must be positive");
+        if (source.size() < size)
+            return;
+        Window<T> window = of(source, 0, size);
+        consumer.accept(window);
+        while (window.canSlide(step)) {
+            window.slide(step);
+            consumer.accept(window);
+        }
+    }
+
+    // ==================== Window ====================
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return source.get(offset + index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns true if the window can move by step and stay within the source.
+     */
+    public boolean canSlide(int step) {
+        long moved = (long) offset + step;
+        return moved >= 0 && moved + size <= source.size();
+    }
+
+    /**
+     * Moves the window by step elements, in place. A negative step moves it back.
+     */
+    public Window<T> slide(int step) {
+        if (!canSlide(step))
+            throw new IndexOutOfBoundsException("Cannot slide window by " + step);
+        offset += step;
+        return this;
+    }
+
+    /**
+     * Returns a view of part of this window, without copying.
+     */
+    @Override
+    public Window<T> subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("Range [" + fromIndex + ", " + toIndex + ") of window of size " + size);
+        return new Window<>(source, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Copies the elements into a new mutable list.
+     */
+    public List<T> toList() {
+        return new ArrayList<>(this);
+    }
+
+    private static <T> List<T> indexed(List<T> source) {
+        return source instanceof RandomAccess ? source : new ArrayList<>(source);
+    }
+
+    /**
+     * Read-only list of windows at regular offsets, created on access.
+     */
+    private static class Windows<T> extends AbstractList<List<T>> implements RandomAccess {
+
+        private final List<T> source;
+        private final int size;
+        private final int step;
+        private final int count;
+        private final boolean truncateLast;
+
+        Windows(List<T> source, int size, int step, int count, boolean truncateLast) {
+            this.source = source;
+            this.size = size;
+            this.step = step;
+            this.count = count;
+            this.truncateLast = truncateLast;
+        }
+
+        @Override
+        public List<T> get(int index) {
+            if (index < 0 || index >= count)
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + count);
+            int offset = index * step;
+            int length = truncateLast ? Math.min(size, source.size() - offset) : size;
+            return new Window<>(source, offset, length);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.AdaptiveLimiter;
+
+public class AdaptiveLimiterTest {
+
+    @Test
+    public void testIncreasesWhileLatencyIsSteady() {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(2, 1, 100);
+        for (int round = 0; round < 50; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++)
+                limiter.acquire();
+            for (int i = 0; i < limit; i++)
+                limiter.release(1_000_000, true);
+        }
+        assertTrue(limiter.getLimit() > 2);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testDoesNotIncreaseWhenUnderused() {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(10, 1, 100);
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.release(1_000_000, true);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void testDecreasesOnFailure() {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(10, 1, 100);
+        limiter.acquire();
+        limiter.release(1_000_000, false);
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    public void testDecreasesOnSlowCall() {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(10, 1, 100);
+        limiter.acquire();
+        limiter.release(1_000_000, true);
+        assertEquals(1_000_000, limiter.getBaselineLatency().toNanos());
+        limiter.acquire();
+        limiter.release(5_000_000, true);
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    public void testDecreasesOncePerRoundTrip() {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(10, 1, 100);
+        for (int i = 0; i < 10; i++)
+            limiter.acquire();
+        for (int i = 0; i < 10; i++)
+            limiter.release(1_000_000_000L, false);
+        assertEquals(9, limiter.getLimit());
+        limiter.acquire();
+        limiter.release(0, false);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    public void testStaysWithinBounds() {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(3, 2, 100);
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.release(0, false);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void testAcquireWaitsForRelease() throws InterruptedException {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(1, 1, 1);
+        limiter.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            limiter.acquire();
+            acquired.countDown();
+        });
+        waiter.start();
+        assertFalse(acquired.await(50, TimeUnit.MILLISECONDS));
+        limiter.release(1_000_000, true);
+        assertTrue(acquired.await(2, TimeUnit.SECONDS));
+        waiter.join();
+    }
+
+    @Test
+    public void testAbandonKeepsLimitAndBaseline() {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(10, 1, 100);
+        limiter.acquire();
+        limiter.abandon();
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(10, limiter.getLimit());
+        assertNull(limiter.getBaselineLatency());
+    }
+
+    @Test
+    public void testCallCountsFailures() {
+        AdaptiveLimiter limiter = AdaptiveLimiter.of(10, 1, 100);
+        try {
+            limiter.call(() -> {
+                throw new IllegalStateException("boom");
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertEquals(9, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals("ok", limiter.call(() -> "ok"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.akalea.sugar;
+
+import static com.akalea.sugar.Collections.*;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.Batcher;
+
+public class BatcherTest {
+
+    @Test
+    public void testFlushesWhenFull() {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        Batcher<Integer> batcher = Batcher.of(batches::add, Duration.ofSeconds(10), 3);
+        for (int i = 1; i <= 7; i++)
+            batcher.accept(i);
+        assertEquals(list(list(1, 2, 3), list(4, 5, 6)), batches);
+        assertEquals(1, batcher.pending());
+        batcher.close();
+        assertEquals(list(7), batches.get(2));
+    }
+
+    @Test
+    public void testFlushesAfterWindow() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        Batcher<String> batcher = Batcher.of(batch -> {
+            batches.add(batch);
+            delivered.countDown();
+        }, Duration.ofMillis(50), 100);
+        batcher.accept("a");
+        batcher.accept("b");
+        assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        assertEquals(1, batches.size());
+        assertEquals(list("a", "b"), batches.get(0));
+        assertEquals(0, batcher.pending());
+    }
+
+    @Test
+    public void testBackgroundFailureGoesToErrorHandler() throws InterruptedException {
+        CountDownLatch reported = new CountDownLatch(1);
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        Batcher<String> batcher = Batcher.<String> of(batch -> {
+            throw new IllegalStateException("store down");
+        }, Duration.ofMillis(20), 100).onError(e -> {
+            errors.add(e);
+            reported.countDown();
+        });
+        batcher.accept("a");
+        assertTrue(reported.await(2, TimeUnit.SECONDS));
+        assertTrue(errors.get(0) instanceof IllegalStateException);
+        assertEquals(0, batcher.pending());
+    }
+
+    @Test
+    public void testBackgroundFailureGoesToUncaughtHandlerByDefault() throws InterruptedException {
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        CountDownLatch reported = new CountDownLatch(1);
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+            if (e instanceof IllegalStateException)
+                reported.countDown();
+        });
+        try {
+            Batcher<String> batcher = Batcher.of(batch -> {
+                throw new IllegalStateException("store down");
+            }, Duration.ofMillis(20), 100);
+            batcher.accept("a");
+            assertTrue(reported.await(2, TimeUnit.SECONDS));
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailureWhenFullThrowsToCaller() {
+        Batcher<String> batcher = Batcher.of(batch -> {
+            throw new IllegalStateException("store down");
+        }, Duration.ofSeconds(10), 1);
+        batcher.accept("a");
+    }
+
+    @Test
+    public void testBatchesPerKey() {
+        Map<Boolean, List<List<Integer>>> batches = new ConcurrentHashMap<>();
+        Batcher<Integer> batcher = Batcher.byKey(
+            i -> i % 2 == 0,
+            (even, batch) -> batches.computeIfAbsent(even, k -> new CopyOnWriteArrayList<>()).add(batch),
+            Duration.ofSeconds(10),
+            2);
+        for (int i = 1; i <= 5; i++)
+            batcher.accept(i);
+        assertEquals(list(2, 4), batches.get(true).get(0));
+        assertEquals(list(1, 3), batches.get(false).get(0));
+        batcher.flush();
+        assertEquals(list(5), batches.get(false).get(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsAfterClose() {
+        Batcher<Integer> batcher = Batcher.of(batch -> {
+        }, Duration.ofSeconds(1), 10);
+        batcher.close();
+        batcher.accept(1);
+    }
+}
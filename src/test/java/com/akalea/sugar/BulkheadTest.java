@@ -0,0 +1,55 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.Bulkhead;
+
+public class BulkheadTest {
+
+    @Test
+    public void testRejectsOverLimit() throws InterruptedException {
+        Bulkhead bulkhead = Bulkhead.of(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> bulkhead.run(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.getAvailable());
+        assertTrue(bulkhead.tryCall(() -> "ok").getException() instanceof Bulkhead.FullException);
+        release.countDown();
+        holder.join();
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+    }
+
+    @Test
+    public void testReleasesOnFailure() {
+        Bulkhead bulkhead = Bulkhead.of(2);
+        assertTrue(bulkhead.tryCall(() -> {
+            throw new IllegalStateException("boom");
+        }).isFailure());
+        assertEquals(0, bulkhead.getInFlight());
+        assertEquals(2, bulkhead.getAvailable());
+    }
+
+    @Test
+    public void testTryAcquire() {
+        Bulkhead bulkhead = Bulkhead.of(2);
+        assertTrue(bulkhead.tryAcquire());
+        assertTrue(bulkhead.tryAcquire());
+        assertFalse(bulkhead.tryAcquire());
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+    }
+}
@@ -0,0 +1,99 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.CircuitBreaker;
+import com.akalea.sugar.internal.Try;
+
+public class CircuitBreakerTest {
+
+    private static void fail(CircuitBreaker breaker) {
+        breaker.tryCall(() -> {
+            throw new IllegalStateException("down");
+        });
+    }
+
+    @Test
+    public void testOpensWhenFailureRateReached() {
+        CircuitBreaker breaker = CircuitBreaker.of(0.5, 4, Duration.ofMinutes(1));
+        assertEquals("ok", breaker.call(() -> "ok"));
+        assertEquals("ok", breaker.call(() -> "ok"));
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testRejectsWhileOpen() {
+        CircuitBreaker breaker = CircuitBreaker.of(0.5, 2, Duration.ofMinutes(1));
+        breaker.open();
+        AtomicInteger calls = new AtomicInteger(0);
+        Try<Integer> result = breaker.tryCall(calls::incrementAndGet);
+        assertTrue(result.isFailure());
+        assertTrue(result.getException() instanceof CircuitBreaker.OpenException);
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testNeedsMinimumCalls() {
+        CircuitBreaker breaker = CircuitBreaker.of(0.5, 10, Duration.ofMinutes(1));
+        for (int i = 0; i < 4; i++)
+            fail(breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testWindowForgetsOldFailures() {
+        CircuitBreaker breaker = CircuitBreaker.of(0.75, 4, 4, Duration.ofMinutes(1), 1);
+        fail(breaker);
+        fail(breaker);
+        for (int i = 0; i < 4; i++)
+            breaker.call(() -> "ok");
+        assertEquals(0.0, breaker.getFailureRate(), 0.0);
+        fail(breaker);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testClosesAfterSuccessfulTrial() throws InterruptedException {
+        CircuitBreaker breaker = CircuitBreaker.of(0.5, 2, Duration.ofMillis(20));
+        breaker.open();
+        Thread.sleep(40);
+        assertEquals("ok", breaker.call(() -> "ok"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testReopensAfterFailedTrial() throws InterruptedException {
+        CircuitBreaker breaker = CircuitBreaker.of(0.5, 2, Duration.ofMillis(20));
+        breaker.open();
+        Thread.sleep(40);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.tryCall(() -> "ok").isFailure());
+    }
+
+    @Test
+    public void testRetryStopsOnOpenBreaker() {
+        CircuitBreaker breaker = CircuitBreaker.of(0.5, 4, Duration.ofMinutes(1));
+        AtomicInteger attempts = new AtomicInteger(0);
+        try {
+            Parallel.retry(breaker.decorate(() -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("down");
+            }), 10, Duration.ofMillis(1));
+            org.junit.Assert.fail();
+        } catch (CircuitBreaker.OpenException e) {
+            assertEquals(2, attempts.get());
+        }
+    }
+}
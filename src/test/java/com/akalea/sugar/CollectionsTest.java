@@ -13,7 +13,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import com.akalea.sugar.internal.IntIntMap;
+import com.akalea.sugar.internal.IntList;
 import com.akalea.sugar.internal.KeyValue;
+import com.akalea.sugar.internal.LongList;
+import com.akalea.sugar.internal.LongLongMap;
+import com.akalea.sugar.internal.ObjectIntMap;
+import com.akalea.sugar.internal.ObjectLongMap;
 import com.akalea.sugar.internal.Pair;
 import com.akalea.sugar.internal.Tuple3;
 import com.akalea.sugar.internal.Tuple4;
@@ -74,6 +80,19 @@ public class CollectionsTest {
         assertEquals(list(0, 2, 4, 6, 8), iRange(0, 10, 2));
     }
 
+    @Test
+    public void testIRangeFrom() {
+        assertEquals(list(3, 4), iRange(3, 5));
+    }
+
+    @Test
+    public void testIntRange() {
+        assertEquals(IntList.of(0, 1, 2, 3, 4), intRange(0, 5));
+        assertEquals(IntList.of(1, 4, 7), intRange(1, 9, 3));
+        assertTrue(intRange(5, 0).isEmpty());
+        assertEquals(iRange(0, 10, 3), intRange(0, 10, 3).boxed());
+    }
+
     // ==================== orElse Tests ====================
 
     @Test
@@ -338,6 +357,40 @@ public class CollectionsTest {
         assertEquals(list("bb", "dd"), grouped.get(2));
     }
 
+    @Test
+    public void testGroupByLargeInput() {
+        List<Integer> values = iRange(0, 200_000);
+        Map<Integer, List<Integer>> grouped = groupBy(values, x -> x % 3);
+        assertEquals(3, grouped.size());
+        assertEquals(66_667, grouped.get(0).size());
+        assertEquals((Integer) 199_998, grouped.get(0).get(66_666));
+    }
+
+    @Test
+    public void testGroupByNullKey() {
+        Map<Integer, List<String>> grouped = groupBy(list("a", null, "b"), s -> s == null ? null : 1);
+        assertEquals(list("a", "b"), grouped.get(1));
+        assertEquals(1, grouped.get(null).size());
+    }
+
+    @Test
+    public void testGroupByLinkedAndSorted() {
+        List<String> words = list("pear", "fig", "apple", "kiwi", "date");
+        assertEquals(list(4, 3, 5), new java.util.ArrayList<>(groupByLinked(words, String::length).keySet()));
+        assertEquals(list(3, 4, 5), new java.util.ArrayList<>(groupBySorted(words, String::length).keySet()));
+        assertEquals(list("pear", "kiwi", "date"), groupBySorted(words, String::length).get(4));
+    }
+
+    @Test
+    public void testGroupByDownstream() {
+        List<String> words = list("pear", "fig", "apple", "kiwi", "date");
+        Map<Integer, Long> counts = groupBy(words, String::length, java.util.stream.Collectors.counting());
+        assertEquals((Long) 3L, counts.get(4));
+        assertEquals((Long) 1L, counts.get(5));
+        Map<Integer, String> joined = groupBy(words, String::length, java.util.stream.Collectors.joining(","));
+        assertEquals("pear,kiwi,date", joined.get(4));
+    }
+
     @Test
     public void testApply() {
         Map<String, List<Integer>> data = new HashMap<>();
@@ -482,6 +535,36 @@ public class CollectionsTest {
         assertEquals((Long) 1L, counts.get("b"));
     }
 
+    @Test
+    public void testIntCounts() {
+        ObjectIntMap<Integer> counts = intCounts(list("a", "bb", "c", "dd", "eee"), s -> s.length());
+        assertEquals(2, counts.get(1));
+        assertEquals(1, counts.get(3));
+        assertEquals(counts(list("a", "bb", "c", "dd", "eee"), s -> s.length()), counts.toMap());
+        assertEquals(2, intSums(list("a", "bb", "cc"), s -> s.substring(0, 1), String::length).get("c"));
+    }
+
+    @Test
+    public void testLongFrequencies() {
+        ObjectLongMap<String> frequencies = longFrequencies(list("a", "b", "a", null));
+        assertEquals(2L, frequencies.get("a"));
+        assertEquals(1L, frequencies.get(null));
+        assertEquals((Long) 1L, frequencies(list("a", null)).get(null));
+        assertTrue(longFrequencies(null).isEmpty());
+    }
+
+    @Test
+    public void testPrimitiveFrequencies() {
+        IntIntMap ints = intValueFrequencies(IntList.of(1, 2, 1, 0, 0, 0));
+        assertEquals(2, ints.get(1));
+        assertEquals(3, ints.get(0));
+        LongLongMap longs = longValueFrequencies(LongList.of(5L, 5L));
+        assertEquals(2L, longs.get(5L));
+        assertTrue(intValueFrequencies(null).isEmpty());
+        assertTrue(longValueFrequencies(null).isEmpty());
+        assertTrue(frequencies(null).isEmpty());
+    }
+
     // ==================== enumerate Tests ====================
 
     @Test
@@ -1020,4 +1103,51 @@ public class CollectionsTest {
         assertEquals(1, result.size());
         assertFalse(result.containsKey("a"));
     }
+
+    // ==================== View Tests ====================
+
+    @Test
+    public void testSlidingView() {
+        List<Integer> values = list(1, 2, 3, 4, 5);
+        assertEquals(sliding(values, 2), slidingView(values, 2));
+        assertEquals(sliding(values, 2, 3), slidingView(values, 2, 3));
+        assertTrue(slidingView(null, 2).isEmpty());
+        assertTrue(slidingView(values, 0).isEmpty());
+    }
+
+    @Test
+    public void testForEachWindow() {
+        List<Integer> sums = new java.util.ArrayList<>();
+        forEachWindow(list(1, 2, 3, 4), 2, 1, w -> sums.add(w.get(0) + w.get(1)));
+        assertEquals(list(3, 5, 7), sums);
+    }
+
+    @Test
+    public void testPartitionView() {
+        assertEquals(partition(list(1, 2, 3, 4, 5), 2), partitionView(list(1, 2, 3, 4, 5), 2));
+        assertTrue(partitionView(null, 2).isEmpty());
+    }
+
+    @Test
+    public void testSplitAtView() {
+        List<Integer> values = list(1, 2, 3, 4);
+        assertSamePair(splitAt(values, 1), splitAtView(values, 1));
+        assertSamePair(splitAt(values, -1), splitAtView(values, -1));
+        assertSamePair(splitAt(values, 9), splitAtView(values, 9));
+        Pair<List<Integer>, List<Integer>> views = splitAtView(values, 2);
+        values.set(0, 10);
+        assertEquals((Integer) 10, views.getFirst().get(0));
+    }
+
+    @Test
+    public void testSpanView() {
+        List<Integer> values = list(1, 2, 5, 1);
+        assertSamePair(span(values, x -> x < 3), spanView(values, x -> x < 3));
+        assertEquals(list(5, 1), spanView(values, x -> x < 3).getSecond());
+    }
+
+    private static <A, B> void assertSamePair(Pair<A, B> expected, Pair<A, B> actual) {
+        assertEquals(expected.getFirst(), actual.getFirst());
+        assertEquals(expected.getSecond(), actual.getSecond());
+    }
 }
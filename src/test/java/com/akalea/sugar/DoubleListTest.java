@@ -0,0 +1,41 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.DoubleList;
+
+public class DoubleListTest {
+
+    @Test
+    public void testAddAndGet() {
+        DoubleList list = new DoubleList();
+        for (int i = 0; i < 100; i++)
+            list.add(i / 2.0);
+        assertEquals(100, list.size());
+        assertEquals(49.5, list.get(99), 0.0);
+    }
+
+    @Test
+    public void testBulkOperations() {
+        DoubleList list = DoubleList.of(0.5, 2.5, 1.5);
+        assertEquals(4.5, list.sum(), 1e-9);
+        assertEquals(2.5, list.max(), 0.0);
+        assertEquals(DoubleList.of(2.5, 1.5), list.filter(x -> x > 1));
+        assertEquals(DoubleList.of(1.0, 5.0, 3.0), list.map(x -> x * 2));
+        assertEquals(DoubleList.of(0.5, 1.5, 2.5), list.sort());
+        assertEquals(1, list.binarySearch(1.5));
+    }
+
+    @Test
+    public void testConversions() {
+        double[] values = { 1.0, 2.0 };
+        DoubleList list = DoubleList.wrap(values);
+        assertSame(values, list.array());
+        assertEquals(Arrays.asList(1.0, 2.0), list.boxed());
+        assertEquals(3.0, list.stream().sum(), 0.0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.Histogram;
+
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(Duration.ZERO, histogram.getMean());
+        assertEquals(Duration.ZERO, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void testRecord() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++)
+            histogram.record(i * 1000L);
+        assertEquals(100, histogram.getCount());
+        assertEquals(Duration.ofNanos(50_500), histogram.getMean());
+        assertEquals(Duration.ofNanos(100_000), histogram.getMax());
+        long p50 = histogram.getPercentile(0.5).toNanos();
+        assertTrue(p50 >= 50_000 && p50 < 100_000);
+        assertEquals(Duration.ofNanos(100_000), histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void testSnapshotIsFrozen() {
+        Histogram histogram = new Histogram();
+        histogram.record(10);
+        Histogram snapshot = histogram.snapshot();
+        histogram.record(20);
+        assertEquals(1, snapshot.getCount());
+        assertEquals(2, histogram.getCount());
+    }
+}
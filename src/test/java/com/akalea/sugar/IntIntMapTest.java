@@ -0,0 +1,73 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.IntIntMap;
+
+public class IntIntMapTest {
+
+    @Test
+    public void testAddTo() {
+        IntIntMap counts = new IntIntMap();
+        for (int value : new int[] { 3, 1, 3, -7, 3 })
+            counts.addTo(value, 1);
+        assertEquals(3, counts.size());
+        assertEquals(3, counts.get(3));
+        assertEquals(1, counts.get(-7));
+        assertEquals(0, counts.get(42));
+    }
+
+    @Test
+    public void testZeroKey() {
+        IntIntMap map = new IntIntMap();
+        assertFalse(map.containsKey(0));
+        assertEquals(0, map.put(0, 5));
+        assertTrue(map.containsKey(0));
+        assertEquals(5, map.get(0));
+        assertEquals(6, map.addTo(0, 1));
+        assertEquals(1, map.size());
+        assertEquals((Integer) 6, map.toMap().get(0));
+        assertEquals(6, map.remove(0));
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        IntIntMap map = new IntIntMap(16);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(4000) - 2000;
+            if (random.nextInt(4) == 0) {
+                Integer previous = expected.remove(key);
+                assertEquals(previous == null ? 0 : previous, map.remove(key));
+            } else {
+                map.addTo(key, 1);
+                expected.merge(key, 1, Integer::sum);
+            }
+        }
+        assertEquals(expected, map.toMap());
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    public void testForEachAndEquals() {
+        IntIntMap a = new IntIntMap();
+        a.put(1, 10);
+        a.put(2, 20);
+        int[] total = { 0 };
+        a.forEach((k, v) -> total[0] += k * v);
+        assertEquals(50, total[0]);
+        IntIntMap b = new IntIntMap().addAll(a);
+        assertEquals(a, b);
+        assertEquals(a.toMap().hashCode(), a.hashCode());
+        b.clear();
+        assertTrue(b.isEmpty());
+    }
+}
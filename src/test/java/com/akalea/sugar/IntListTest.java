@@ -0,0 +1,147 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.IntList;
+
+public class IntListTest {
+
+    @Test
+    public void testAddAndGet() {
+        IntList list = new IntList();
+        for (int i = 0; i < 100; i++)
+            list.add(i * 2);
+        assertEquals(100, list.size());
+        assertEquals(0, list.get(0));
+        assertEquals(198, list.get(99));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        IntList list = new IntList(16);
+        list.add(1);
+        list.get(1);
+    }
+
+    @Test
+    public void testSetAndRemove() {
+        IntList list = IntList.of(1, 2, 3, 4);
+        assertEquals(2, list.set(1, 20));
+        assertEquals(3, list.removeAt(2));
+        assertEquals(IntList.of(1, 20, 4), list);
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testAddAll() {
+        IntList list = IntList.of(1).addAll(2, 3).addAll(IntList.of(4, 5));
+        assertEquals(IntList.of(1, 2, 3, 4, 5), list);
+    }
+
+    @Test
+    public void testIndexOf() {
+        IntList list = IntList.of(5, 6, 7);
+        assertEquals(1, list.indexOf(6));
+        assertEquals(-1, list.indexOf(8));
+        assertTrue(list.contains(7));
+    }
+
+    @Test
+    public void testMapFilter() {
+        IntList list = IntList.of(1, 2, 3, 4, 5);
+        assertEquals(IntList.of(2, 4, 6, 8, 10), list.map(x -> x * 2));
+        assertEquals(IntList.of(2, 4), list.filter(x -> x % 2 == 0));
+        assertEquals(IntList.of(1, 2, 3, 4, 5), list);
+    }
+
+    @Test
+    public void testAggregates() {
+        IntList list = IntList.of(Integer.MAX_VALUE, Integer.MAX_VALUE, -3);
+        assertEquals(2L * Integer.MAX_VALUE - 3, list.sum());
+        assertEquals(-3, list.min());
+        assertEquals(Integer.MAX_VALUE, list.max());
+        assertEquals(0, new IntList().sum());
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testMinEmpty() {
+        new IntList().min();
+    }
+
+    @Test
+    public void testSortAndBinarySearch() {
+        IntList list = IntList.of(5, 1, 4, 2, 3).sort();
+        assertEquals(IntList.of(1, 2, 3, 4, 5), list);
+        assertEquals(3, list.binarySearch(4));
+        assertTrue(list.binarySearch(10) < 0);
+    }
+
+    @Test
+    public void testWrapSharesArray() {
+        int[] values = { 3, 1, 2 };
+        IntList list = IntList.wrap(values);
+        values[0] = 9;
+        assertEquals(9, list.get(0));
+        assertSame(values, list.array());
+        list.sort();
+        assertArrayEquals(new int[] { 1, 2, 9 }, values);
+    }
+
+    @Test
+    public void testArrayTrims() {
+        IntList list = new IntList(100);
+        list.add(1).add(2);
+        int[] array = list.array();
+        assertArrayEquals(new int[] { 1, 2 }, array);
+        assertSame(array, list.array());
+    }
+
+    @Test
+    public void testOfCopies() {
+        int[] values = { 1, 2 };
+        IntList list = IntList.of(values);
+        values[0] = 9;
+        assertEquals(1, list.get(0));
+        int[] copy = list.toArray();
+        copy[1] = 9;
+        assertEquals(2, list.get(1));
+    }
+
+    @Test
+    public void testBoxedView() {
+        IntList list = IntList.of(1, 2, 3);
+        List<Integer> boxed = list.boxed();
+        assertEquals(Arrays.asList(1, 2, 3), boxed);
+        list.add(4);
+        assertEquals(4, boxed.size());
+        assertEquals(list, IntList.copyOf(boxed));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBoxedViewReadOnly() {
+        IntList.of(1).boxed().add(2);
+    }
+
+    @Test
+    public void testStream() {
+        assertEquals(6, IntList.of(1, 2, 3).stream().sum());
+        assertEquals(2, new IntList(10).add(1).add(1).stream().count());
+    }
+
+    @Test
+    public void testEqualsAndToString() {
+        IntList a = new IntList(50).add(1).add(2);
+        IntList b = IntList.of(1, 2);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(Arrays.asList(1, 2).hashCode(), a.hashCode());
+        assertEquals("[1, 2]", a.toString());
+        assertNotEquals(a, IntList.of(1));
+    }
+}
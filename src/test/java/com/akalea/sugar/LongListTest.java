@@ -0,0 +1,41 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.LongList;
+
+public class LongListTest {
+
+    @Test
+    public void testAddAndGet() {
+        LongList list = new LongList();
+        for (long i = 0; i < 100; i++)
+            list.add(i << 32);
+        assertEquals(100, list.size());
+        assertEquals(99L << 32, list.get(99));
+    }
+
+    @Test
+    public void testBulkOperations() {
+        LongList list = LongList.of(5L, 1L, 4L, 2L, 3L);
+        assertEquals(15L, list.sum());
+        assertEquals(LongList.of(4L, 2L), list.filter(x -> x % 2 == 0));
+        assertEquals(LongList.of(10L, 2L, 8L, 4L, 6L), list.map(x -> x * 2));
+        assertEquals(LongList.of(1L, 2L, 3L, 4L, 5L), list.sort());
+        assertEquals(2, list.binarySearch(3L));
+    }
+
+    @Test
+    public void testConversions() {
+        long[] values = { 1L, 2L };
+        LongList list = LongList.wrap(values);
+        assertSame(values, list.array());
+        assertNotSame(values, list.toArray());
+        assertEquals(Arrays.asList(1L, 2L), list.boxed());
+        assertEquals(3L, list.stream().sum());
+    }
+}
@@ -0,0 +1,32 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.LongLongMap;
+
+public class LongLongMapTest {
+
+    @Test
+    public void testAddTo() {
+        LongLongMap map = new LongLongMap();
+        for (long i = 0; i < 10_000; i++)
+            map.addTo(i << 32, i);
+        map.addTo(0L, 1L);
+        assertEquals(10_000, map.size());
+        assertEquals(1L, map.get(0L));
+        assertEquals(9_999L, map.get(9_999L << 32));
+        assertFalse(map.containsKey(1L));
+    }
+
+    @Test
+    public void testPutAndRemove() {
+        LongLongMap map = new LongLongMap();
+        assertEquals(0L, map.put(Long.MIN_VALUE, 1L));
+        assertEquals(1L, map.put(Long.MIN_VALUE, 2L));
+        assertEquals(2L, map.remove(Long.MIN_VALUE));
+        assertTrue(map.isEmpty());
+        assertEquals(-1L, map.getOrDefault(Long.MIN_VALUE, -1L));
+    }
+}
@@ -0,0 +1,114 @@
+package com.akalea.sugar;
+
+import static com.akalea.sugar.Collections.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.Multimap;
+
+public class MultimapTest {
+
+    @Test
+    public void testPutAndGet() {
+        Multimap<String, Integer> map = Multimap.hash();
+        map.put("a", 1).put("b", 2).put("a", 3);
+        assertEquals(list(1, 3), map.get("a"));
+        assertEquals(list(2), map.get("b"));
+        assertTrue(map.get("c").isEmpty());
+        assertEquals(3, map.size());
+        assertEquals(2, map.keyCount());
+        assertTrue(map.containsKey("a"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testGetIsReadOnly() {
+        Multimap<String, Integer> map = Multimap.hash();
+        map.put("a", 1);
+        map.get("a").add(2);
+    }
+
+    @Test
+    public void testPutAllByKey() {
+        Multimap<Integer, String> map = Multimap.hash(2, 4);
+        map.putAll(list("a", "bb", "c", "dd", "eee"), String::length);
+        assertEquals(list("a", "c"), map.get(1));
+        assertEquals(list("eee"), map.get(3));
+        map.putAll(3, list("fff", "ggg"));
+        assertEquals(list("eee", "fff", "ggg"), map.get(3));
+        assertEquals(7, map.size());
+    }
+
+    @Test
+    public void testNullKey() {
+        Multimap<String, Integer> map = Multimap.hash();
+        map.put(null, 1).put(null, 2);
+        assertEquals(list(1, 2), map.get(null));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        Multimap<String, Integer> map = Multimap.hash();
+        map.put("a", 1).put("a", 2).put("b", 3);
+        List<Integer> removed = map.remove("a");
+        assertEquals(list(1, 2), removed);
+        assertEquals(1, map.size());
+        assertTrue(map.remove("x").isEmpty());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.keyCount());
+    }
+
+    @Test
+    public void testLinkedKeepsInsertionOrder() {
+        Multimap<String, Integer> map = Multimap.linked(4);
+        map.put("z", 1).put("a", 2).put("m", 3).put("z", 4);
+        assertEquals(list("z", "a", "m"), new ArrayList<>(map.keySet()));
+        assertTrue(map.asMap() instanceof LinkedHashMap);
+    }
+
+    @Test
+    public void testSorted() {
+        Multimap<String, Integer> map = Multimap.sorted();
+        map.put("z", 1).put("a", 2).put("m", 3);
+        assertEquals(list("a", "m", "z"), new ArrayList<>(map.keySet()));
+        Multimap<String, Integer> reversed = Multimap.sorted(Comparator.<String> reverseOrder());
+        reversed.put("a", 1).put("z", 2);
+        assertEquals(list("z", "a"), new ArrayList<>(reversed.keySet()));
+        assertTrue(reversed.asMap() instanceof TreeMap);
+    }
+
+    @Test
+    public void testForEach() {
+        Multimap<String, Integer> map = Multimap.linked();
+        map.put("a", 1).put("b", 2).put("a", 3);
+        StringBuilder sb = new StringBuilder();
+        map.forEach((k, v) -> sb.append(k).append(v));
+        assertEquals("a1a3b2", sb.toString());
+    }
+
+    @Test
+    public void testAsMapAndEquals() {
+        Multimap<String, Integer> a = Multimap.hash();
+        Multimap<String, Integer> b = Multimap.linked();
+        a.put("x", 1).put("x", 2);
+        b.put("x", 1).put("x", 2);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        Map<String, List<Integer>> map = a.asMap();
+        assertEquals(list(1, 2), map.get("x"));
+        assertEquals("{x=[1, 2]}", a.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeExpectedKeys() {
+        Multimap.hash(-1);
+    }
+}
@@ -7,6 +7,8 @@ import java.util.List;
 
 import org.junit.Test;
 
+import com.akalea.sugar.internal.IntList;
+
 public class NumbersTest {
 
     // ==================== Clamp Tests ====================
@@ -213,6 +215,26 @@ public class NumbersTest {
         assertEquals(4, result.size());
     }
 
+    @Test
+    public void testIntRange() {
+        assertEquals(range(0, 10, 3), intRange(0, 10, 3).boxed());
+        assertEquals(range(10, 5, -2), intRange(10, 5, -2).boxed());
+        assertTrue(intRange(0, 5, 0).isEmpty());
+        assertEquals(IntList.of(Integer.MAX_VALUE - 2), intRange(Integer.MAX_VALUE - 2, Integer.MAX_VALUE, 3));
+    }
+
+    @Test
+    public void testLongRange() {
+        assertEquals(range(0L, 10L, 3L), longRange(0L, 10L, 3L).boxed());
+        assertEquals(range(10L, 5L, -2L), longRange(10L, 5L, -2L).boxed());
+    }
+
+    @Test
+    public void testDoubleRange() {
+        assertEquals(range(0.0, 1.0, 0.25), doubleRange(0.0, 1.0, 0.25).boxed());
+        assertEquals(4, doubleRange(1.0, 0.0, -0.25).size());
+    }
+
     @Test
     public void testRangeDoubleZeroStep() {
         List<Double> result = range(0.0, 5.0, 0.0);
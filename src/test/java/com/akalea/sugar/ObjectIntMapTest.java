@@ -0,0 +1,156 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.ObjectIntMap;
+
+public class ObjectIntMapTest {
+
+    @Test
+    public void testAddTo() {
+        ObjectIntMap<String> counts = new ObjectIntMap<>();
+        for (String word : "a b a c a b".split(" "))
+            counts.addTo(word, 1);
+        assertEquals(3, counts.size());
+        assertEquals(3, counts.get("a"));
+        assertEquals(2, counts.get("b"));
+        assertEquals(1, counts.get("c"));
+        assertEquals(0, counts.get("d"));
+        assertEquals(5, counts.addTo("c", 4));
+    }
+
+    @Test
+    public void testPutAndGetOrDefault() {
+        ObjectIntMap<String> map = new ObjectIntMap<>();
+        assertEquals(0, map.put("a", 7));
+        assertEquals(7, map.put("a", 8));
+        assertEquals(8, map.getOrDefault("a", -1));
+        assertEquals(-1, map.getOrDefault("b", -1));
+        assertTrue(map.containsKey("a"));
+        assertFalse(map.containsKey("b"));
+    }
+
+    @Test
+    public void testNullKey() {
+        ObjectIntMap<String> map = new ObjectIntMap<>();
+        assertFalse(map.containsKey(null));
+        map.addTo(null, 2);
+        map.addTo(null, 3);
+        assertTrue(map.containsKey(null));
+        assertEquals(5, map.get(null));
+        assertEquals(1, map.size());
+        assertEquals((Integer) 5, map.toMap().get(null));
+        assertEquals(5, map.remove(null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testGrowsAndMatchesHashMap() {
+        ObjectIntMap<Integer> map = new ObjectIntMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5000);
+            map.addTo(key, i);
+            expected.merge(key, i, Integer::sum);
+        }
+        assertEquals(expected, map.toMap());
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        // every key has the same hash code, so all lookups walk one probe chain
+        ObjectIntMap<Colliding> map = new ObjectIntMap<>(4);
+        for (int i = 0; i < 100; i++)
+            map.put(new Colliding(i), i);
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, map.get(new Colliding(i)));
+    }
+
+    @Test
+    public void testRemoveKeepsProbeChains() {
+        ObjectIntMap<Integer> map = new ObjectIntMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                int removed = map.remove(key);
+                Integer previous = expected.remove(key);
+                assertEquals(previous == null ? 0 : previous, removed);
+            }
+        }
+        assertEquals(expected, map.toMap());
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    public void testAddAll() {
+        ObjectIntMap<String> left = new ObjectIntMap<>();
+        left.addTo("a", 1);
+        left.addTo("b", 2);
+        ObjectIntMap<String> right = new ObjectIntMap<>();
+        right.addTo("b", 3);
+        right.addTo("c", 4);
+        left.addAll(right);
+        assertEquals(Collections.map(Collections.kv("a", 1), Collections.kv("b", 5), Collections.kv("c", 4)), left.toMap());
+    }
+
+    @Test
+    public void testClear() {
+        ObjectIntMap<String> map = new ObjectIntMap<>();
+        map.put("a", 1);
+        map.put(null, 1);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey("a"));
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        ObjectIntMap<String> a = new ObjectIntMap<>();
+        ObjectIntMap<String> b = new ObjectIntMap<>(1000);
+        a.put("x", 1);
+        a.put("y", 2);
+        b.put("y", 2);
+        b.put("x", 1);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a.toMap().hashCode(), a.hashCode());
+        b.put("x", 3);
+        assertNotEquals(a, b);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeSize() {
+        new ObjectIntMap<String>(-1);
+    }
+
+    private static class Colliding {
+        private final int id;
+
+        Colliding(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+}
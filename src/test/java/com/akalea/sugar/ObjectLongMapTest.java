@@ -0,0 +1,41 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.ObjectLongMap;
+
+public class ObjectLongMapTest {
+
+    @Test
+    public void testAddTo() {
+        ObjectLongMap<String> sums = new ObjectLongMap<>();
+        sums.addTo("a", Integer.MAX_VALUE);
+        sums.addTo("a", Integer.MAX_VALUE);
+        sums.addTo(null, 1);
+        assertEquals(2L * Integer.MAX_VALUE, sums.get("a"));
+        assertEquals(1L, sums.get(null));
+        assertEquals(2, sums.size());
+    }
+
+    @Test
+    public void testToMap() {
+        ObjectLongMap<Integer> counts = new ObjectLongMap<>();
+        for (int i = 0; i < 1000; i++)
+            counts.addTo(i % 10, 1);
+        assertEquals(10, counts.toMap().size());
+        assertEquals((Long) 100L, counts.toMap().get(3));
+    }
+
+    @Test
+    public void testRemove() {
+        ObjectLongMap<String> map = new ObjectLongMap<>();
+        map.put("a", 1L);
+        map.put("b", 2L);
+        assertEquals(1L, map.remove("a"));
+        assertEquals(0L, map.remove("a"));
+        assertFalse(map.containsKey("a"));
+        assertEquals(2L, map.get("b"));
+    }
+}
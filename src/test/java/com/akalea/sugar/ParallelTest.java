@@ -26,6 +26,64 @@ public class ParallelTest {
         assertTrue(counter.get() >= 2);
     }
 
+    @Test
+    public void testBackgroundSurvivesErrorsAndStopsOnInterrupt() throws InterruptedException {
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        AtomicInteger reported = new AtomicInteger(0);
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> reported.incrementAndGet());
+        AtomicInteger counter = new AtomicInteger(0);
+        Thread t = background(() -> {
+            counter.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }, Duration.ofMillis(10));
+        try {
+            Thread.sleep(100);
+        } finally {
+            t.interrupt();
+            t.join(1000);
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+        assertFalse(t.isAlive());
+        assertFalse(t.isDaemon());
+        assertTrue(counter.get() >= 2);
+        assertEquals(counter.get(), reported.get());
+    }
+
+    @Test
+    public void testBackgroundReportsErrorsToUncaughtHandler() throws InterruptedException {
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        java.util.concurrent.CountDownLatch reported = new java.util.concurrent.CountDownLatch(2);
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+            if (e instanceof IllegalStateException)
+                reported.countDown();
+        });
+        Thread t = null;
+        try {
+            t = background(() -> {
+                throw new IllegalStateException("boom");
+            }, Duration.ofMillis(10));
+            assertTrue(reported.await(2, java.util.concurrent.TimeUnit.SECONDS));
+            assertTrue(t.isAlive());
+        } finally {
+            if (t != null) {
+                t.interrupt();
+                t.join(1000);
+            }
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+    }
+
+    @Test
+    public void testFixedDelay() throws InterruptedException {
+        java.util.concurrent.CountDownLatch runs = new java.util.concurrent.CountDownLatch(2);
+        com.akalea.sugar.internal.PeriodicTask task = fixedDelay(runs::countDown, Duration.ofMillis(10));
+        try {
+            assertTrue(runs.await(2, java.util.concurrent.TimeUnit.SECONDS));
+        } finally {
+            task.stop();
+        }
+    }
+
     // ==================== pMap Tests ====================
 
     @Test
@@ -51,6 +109,292 @@ public class ParallelTest {
         executor.shutdown();
     }
 
+    @Test
+    public void testPMapUsesSharedPool() {
+        String caller = Thread.currentThread().getName();
+        List<String> threads = pMap(iRange(0, 100), x -> Thread.currentThread().getName());
+        assertTrue(all(threads, t -> t.equals(caller) || t.startsWith("sugar-compute-")));
+    }
+
+    @Test
+    public void testNestedPMap() {
+        List<List<Integer>> result =
+            pMap(iRange(0, 2 * Runtime.getRuntime().availableProcessors()), x -> pMap(list(x, x), y -> y + 1));
+        assertEquals(list(1, 1), first(result));
+    }
+
+    @Test
+    public void testPMapPreservesOrder() {
+        List<Integer> input = iRange(0, 10000);
+        assertEquals(map(input, x -> x * 2), pMap(input, x -> x * 2, 3));
+    }
+
+    @Test
+    public void testPMapNonRandomAccessInput() {
+        List<Integer> input = new java.util.LinkedList<>(list(1, 2, 3));
+        assertEquals(list(2, 4, 6), pMap(input, x -> x * 2));
+    }
+
+    @Test
+    public void testPMapNullResults() {
+        assertEquals(list(null, "b"), pMap(list(1, 2), x -> x == 1 ? null : "b"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testPMapPropagatesFailure() {
+        pMap(list(1, 2, 3), x -> {
+            if (x == 2)
+                throw new IllegalStateException("fail");
+            return x;
+        });
+    }
+
+    // ==================== Chunked Tests ====================
+
+    @Test
+    public void testPMapChunked() {
+        List<Integer> input = iRange(0, 10001);
+        assertEquals(map(input, x -> x + 1), pMapChunked(input, x -> x + 1));
+    }
+
+    @Test
+    public void testPMapChunkedWithGrainSize() {
+        List<Integer> input = iRange(0, 10);
+        assertEquals(map(input, x -> x * 3), pMapChunked(input, x -> x * 3, 3));
+        assertEquals(map(input, x -> x * 3), pMapChunked(input, x -> x * 3, 100, 2));
+        assertEquals(list(), pMapChunked(list(), x -> x, 3));
+    }
+
+    @Test
+    public void testPEachChunked() {
+        AtomicInteger sum = new AtomicInteger(0);
+        pEachChunked(iRange(0, 1000), x -> sum.addAndGet(x), 7);
+        assertEquals(499500, sum.get());
+        pEachChunked(iRange(0, 1000), x -> sum.addAndGet(x), 100, 2);
+        assertEquals(2 * 499500, sum.get());
+    }
+
+    // ==================== Fork/Join Tests ====================
+
+    @Test
+    public void testPMapForkJoin() {
+        List<Integer> input = iRange(0, 5000);
+        assertEquals(map(input, x -> x * 2), pMapForkJoin(input, x -> x * 2));
+        assertEquals(map(input, x -> x * 2), pMapForkJoin(input, x -> x * 2, 1));
+        assertEquals(list(), pMapForkJoin(list(), x -> x));
+    }
+
+    @Test
+    public void testPEachForkJoin() {
+        AtomicInteger sum = new AtomicInteger(0);
+        pEachForkJoin(iRange(0, 1000), x -> sum.addAndGet(x));
+        assertEquals(499500, sum.get());
+    }
+
+    @Test
+    public void testPReduce() {
+        assertEquals((Integer) 499500, pReduce(iRange(0, 1000), 0, Integer::sum));
+        assertEquals((Integer) 0, pReduce(list(), 0, Integer::sum));
+        assertEquals("abcd", pReduce(list("a", "b", "c", "d"), "", String::concat));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testPMapForkJoinPropagatesFailure() {
+        pMapForkJoin(list(1, 2, 3), x -> {
+            if (x == 3)
+                throw new IllegalStateException("fail");
+            return x;
+        });
+    }
+
+    // ==================== Aggregation Tests ====================
+
+    @Test
+    public void testPReduceWithCombiner() {
+        List<String> words = map(iRange(0, 1000), String::valueOf);
+        Integer totalLength = pReduce(words, 0, (acc, w) -> acc + w.length(), Integer::sum);
+        assertEquals((Integer) sum(map(words, String::length)), totalLength);
+    }
+
+    @Test
+    public void testPSum() {
+        assertEquals(499500L, pSum(iRange(0, 1000), x -> x));
+        assertEquals(0L, pSum(list(), x -> 1L));
+        assertEquals(4950.0, pSumDouble(iRange(0, 100), x -> x), 0.0001);
+    }
+
+    @Test
+    public void testPCount() {
+        assertEquals(500L, pCount(iRange(0, 1000), x -> x % 2 == 0));
+    }
+
+    @Test
+    public void testPCollect() {
+        List<Integer> input = iRange(0, 1000);
+        assertEquals(input, pCollect(input, java.util.stream.Collectors.toList()));
+        assertEquals(
+            set(input),
+            pCollect(input, java.util.stream.Collectors.toSet()));
+        assertEquals("0,1,2", pCollect(list("0", "1", "2"), java.util.stream.Collectors.joining(",")));
+    }
+
+    @Test
+    public void testPGroupBy() {
+        List<Integer> input = iRange(0, 1000);
+        java.util.Map<Integer, List<Integer>> groups = pGroupBy(input, x -> x % 3);
+        assertEquals(groupBy(input, x -> x % 3), groups);
+        assertEquals(list(0, 3, 6), take(groups.get(0), 3));
+    }
+
+    @Test
+    public void testPCountsAndSums() {
+        List<Integer> input = iRange(0, 1000);
+        assertEquals(counts(input, x -> x % 7), pCounts(input, x -> x % 7));
+        assertEquals(sums(input, x -> x % 7, x -> x), pSums(input, x -> x % 7, x -> x));
+    }
+
+    @Test
+    public void testPFrequencies() {
+        List<String> input = map(iRange(0, 1000), x -> "k" + (x % 10));
+        assertEquals(frequencies(input), pFrequencies(input));
+        assertTrue(pFrequencies(list()).isEmpty());
+    }
+
+    // ==================== Virtual Thread Tests ====================
+
+    @Test
+    public void testPMapVirtual() {
+        List<Integer> input = iRange(0, 200);
+        AtomicInteger inFlight = new AtomicInteger(0);
+        AtomicInteger maxInFlight = new AtomicInteger(0);
+        List<Integer> result = pMapVirtual(input, x -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            delay(1);
+            inFlight.decrementAndGet();
+            return x * 2;
+        }, 16);
+        assertEquals(map(input, x -> x * 2), result);
+        assertTrue(maxInFlight.get() <= 16);
+    }
+
+    @Test
+    public void testPEachVirtual() {
+        AtomicInteger sum = new AtomicInteger(0);
+        pEachVirtual(iRange(0, 100), x -> sum.addAndGet(x), 10);
+        assertEquals(4950, sum.get());
+    }
+
+    @Test
+    public void testAwaitAllVirtual() {
+        List<java.util.function.Supplier<Integer>> suppliers = list(() -> 1, () -> 2, () -> 3);
+        assertEquals(list(1, 2, 3), awaitAllVirtual(suppliers, 2));
+    }
+
+    @Test
+    public void testRaceVirtual() {
+        Integer result = raceVirtual(() -> {
+            delay(200);
+            return 1;
+        }, () -> 2);
+        assertEquals((Integer) 2, result);
+    }
+
+    // ==================== Streaming Tests ====================
+
+    @Test
+    public void testPMapStream() {
+        List<Integer> result = toList(pMap(iRange(0, 1000).stream(), x -> x * 2, 8));
+        assertEquals(map(iRange(0, 1000), x -> x * 2), result);
+    }
+
+    @Test
+    public void testPMapIteratorBoundsInFlight() {
+        AtomicInteger pulled = new AtomicInteger(0);
+        java.util.Iterator<Integer> source = new java.util.Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return pulled.incrementAndGet();
+            }
+        };
+        java.util.Iterator<Integer> results = pMap(source, x -> x * 2, 4);
+        assertEquals((Integer) 2, results.next());
+        assertEquals((Integer) 4, results.next());
+        assertTrue(pulled.get() <= 6);
+        ((com.akalea.sugar.internal.StreamingMap<Integer, Integer>) results).close();
+    }
+
+    @Test(timeout = 10000)
+    public void testPMapIteratorInsideWorkers() throws Exception {
+        // every compute worker consumes a streaming map submitting to the compute pool
+        int workers = com.akalea.sugar.internal.Pools.cores();
+        java.util.concurrent.CountDownLatch ready = new java.util.concurrent.CountDownLatch(workers);
+        List<java.util.concurrent.Future<Integer>> sums = new java.util.ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            boolean ordered = w % 2 == 0;
+            sums.add(com.akalea.sugar.internal.Pools.compute().submit(() -> {
+                ready.countDown();
+                ready.await();
+                java.util.Iterator<Integer> results = ordered
+                    ? pMap(iRange(0, 10).iterator(), y -> y, 1)
+                    : pMapUnordered(iRange(0, 10).iterator(), y -> y, 1);
+                int sum = 0;
+                while (results.hasNext())
+                    sum += results.next();
+                return sum;
+            }));
+        }
+        for (java.util.concurrent.Future<Integer> sum : sums)
+            assertEquals((Integer) 45, sum.get());
+    }
+
+    @Test
+    public void testStreamingMapRejectedSubmission() {
+        java.util.concurrent.Executor rejecting = r -> {
+            throw new java.util.concurrent.RejectedExecutionException("full");
+        };
+        for (boolean ordered : new boolean[] { true, false }) {
+            java.util.Iterator<Integer> source = iRange(0, 3).iterator();
+            com.akalea.sugar.internal.StreamingMap<Integer, Integer> results = ordered
+                ? com.akalea.sugar.internal.StreamingMap.ordered(source, x -> x, rejecting, 2)
+                : com.akalea.sugar.internal.StreamingMap.unordered(source, x -> x, rejecting, 2);
+            try {
+                results.next();
+                fail("Expected rejection");
+            } catch (RuntimeException e) {
+                assertTrue(e.getCause() instanceof java.util.concurrent.RejectedExecutionException);
+            }
+        }
+    }
+
+    @Test
+    public void testPMapSpliterator() {
+        List<Integer> result = toList(pMap(list(1, 2, 3).spliterator(), x -> x + 1, 2));
+        assertEquals(list(2, 3, 4), result);
+    }
+
+    @Test
+    public void testPMapUnordered() {
+        List<Integer> result = toList(pMapUnordered(iRange(0, 100).stream(), x -> x * 2, 4));
+        assertEquals(map(iRange(0, 100), x -> x * 2), sorted(result));
+        java.util.Iterator<Integer> it = pMapUnordered(list(1, 2).iterator(), x -> x, 2);
+        assertEquals(set(1, 2), set(it.next(), it.next()));
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testPMapStreamPropagatesFailure() {
+        toList(pMap(list(1, 2, 3).stream(), x -> {
+            if (x == 2)
+                throw new IllegalStateException("fail");
+            return x;
+        }, 2));
+    }
+
     // ==================== pEach Tests ====================
 
     @Test
@@ -259,6 +603,67 @@ public class ParallelTest {
         assertEquals(1, counter.get());
     }
 
+    @Test
+    public void testScheduledTasksRunOffTheScheduler() throws Exception {
+        java.util.concurrent.atomic.AtomicReference<String> thread = new java.util.concurrent.atomic.AtomicReference<>();
+        java.util.concurrent.CountDownLatch ran = new java.util.concurrent.CountDownLatch(1);
+        scheduleOnce(() -> {
+            thread.set(Thread.currentThread().getName());
+            ran.countDown();
+        }, Duration.ofMillis(1));
+        assertTrue(ran.await(2, java.util.concurrent.TimeUnit.SECONDS));
+        assertFalse(thread.get().startsWith("sugar-scheduler-"));
+    }
+
+    @Test
+    public void testBlockedScheduledTasksDoNotStallTimer() throws InterruptedException {
+        java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+        int timers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        try {
+            for (int i = 0; i < timers; i++)
+                scheduleOnce(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, Duration.ofMillis(1));
+            java.util.concurrent.CountDownLatch fired = new java.util.concurrent.CountDownLatch(1);
+            debounce(fired::countDown, Duration.ofMillis(20)).run();
+            assertTrue(fired.await(2, java.util.concurrent.TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testScheduleStopsAfterFailure() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger(0);
+        java.util.concurrent.ScheduledFuture<?> future = schedule(() -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }, Duration.ofMillis(0), Duration.ofMillis(10));
+        try {
+            future.get(2, java.util.concurrent.TimeUnit.SECONDS);
+            fail();
+        } catch (java.util.concurrent.ExecutionException e) {
+            assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+        } catch (java.util.concurrent.TimeoutException e) {
+            fail();
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testDebounceDoesNotCreateThreads() throws InterruptedException {
+        int before = Thread.activeCount();
+        for (int i = 0; i < 50; i++)
+            debounce(() -> {
+            }, Duration.ofMillis(1)).run();
+        Thread.sleep(50);
+        assertTrue(Thread.activeCount() < before + 10);
+    }
+
     // ==================== race Tests ====================
 
     @Test
@@ -363,4 +768,432 @@ public class ParallelTest {
 
         assertEquals(2, counter.get());
     }
+
+    // ==================== Async Tests ====================
+
+    @Test
+    public void testAsync() throws Exception {
+        assertEquals((Integer) 42, async(() -> 42).get());
+    }
+
+    @Test
+    public void testTimeoutAsync() throws Exception {
+        assertEquals(Optional.of(42), timeoutAsync(() -> 42, Duration.ofSeconds(1)).get());
+        AtomicInteger interrupted = new AtomicInteger(0);
+        Optional<Integer> result = timeoutAsync(() -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+            }
+            return 42;
+        }, Duration.ofMillis(50)).get();
+        assertFalse(result.isPresent());
+        Thread.sleep(50);
+        assertEquals(1, interrupted.get());
+    }
+
+    @Test
+    public void testRaceAsync() throws Exception {
+        Integer result = raceAsync(
+            () -> {
+                delay(200);
+                return 1;
+            },
+            () -> 2).get();
+        assertEquals((Integer) 2, result);
+    }
+
+    @Test(expected = java.util.concurrent.ExecutionException.class)
+    public void testRaceAsyncAllFail() throws Exception {
+        raceAsync(() -> {
+            throw new IllegalStateException("a");
+        }, () -> {
+            throw new IllegalStateException("b");
+        }).get();
+    }
+
+    @Test
+    public void testAwaitAllAsync() throws Exception {
+        List<java.util.function.Supplier<Integer>> suppliers = list(() -> 1, () -> 2, () -> 3);
+        assertEquals(list(1, 2, 3), awaitAllAsync(suppliers).get());
+        assertEquals(list(), awaitAllAsync(list()).get());
+    }
+
+    @Test(expected = java.util.concurrent.ExecutionException.class)
+    public void testAwaitAllAsyncFailure() throws Exception {
+        List<java.util.function.Supplier<Integer>> suppliers = list(() -> 1, () -> {
+            throw new IllegalStateException("fail");
+        });
+        awaitAllAsync(suppliers).get();
+    }
+
+    @Test
+    public void testRetryAsync() throws Exception {
+        AtomicInteger attempts = new AtomicInteger(0);
+        String result = retryAsync(() -> {
+            if (attempts.incrementAndGet() < 3)
+                throw new RuntimeException("fail");
+            return "success";
+        }, 5, Duration.ofMillis(10)).get();
+        assertEquals("success", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testRetryWithBackoffAsyncAllFail() throws Exception {
+        AtomicInteger attempts = new AtomicInteger(0);
+        try {
+            retryWithBackoffAsync(() -> {
+                attempts.incrementAndGet();
+                throw new RuntimeException("fail");
+            }, 3, Duration.ofMillis(5), 2.0).get();
+            fail();
+        } catch (java.util.concurrent.ExecutionException e) {
+            assertEquals(3, attempts.get());
+            assertTrue(e.getCause().getMessage().contains("All 3 attempts failed"));
+        }
+    }
+
+    // ==================== Rate Limiting Tests ====================
+
+    @Test
+    public void testThrottleConcurrentCallers() {
+        AtomicInteger counter = new AtomicInteger(0);
+        Runnable throttled = throttle(() -> counter.incrementAndGet(), Duration.ofSeconds(10));
+        pEach(iRange(0, 1000), x -> throttled.run(), 8);
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testRateLimitDoesNotDropCalls() {
+        AtomicInteger counter = new AtomicInteger(0);
+        Runnable limited = rateLimit(() -> {
+            counter.incrementAndGet();
+        }, 100);
+        pEach(iRange(0, 5), x -> limited.run(), 4);
+        assertEquals(5, counter.get());
+    }
+
+    // ==================== Batching Tests ====================
+
+    @Test
+    public void testBatchCoalescesConcurrentCalls() {
+        List<List<Integer>> batches = new java.util.concurrent.CopyOnWriteArrayList<>();
+        try (com.akalea.sugar.internal.Batcher<Integer> batcher = batch(batches::add, Duration.ofSeconds(10), 10)) {
+            pEach(iRange(0, 100), batcher, 4);
+        }
+        assertEquals(10, batches.size());
+        assertEquals(100, sum(map(batches, List::size)).intValue());
+    }
+
+    // ==================== Adaptive Execution Tests ====================
+
+    @Test
+    public void testPMapAdaptive() {
+        com.akalea.sugar.internal.AdaptiveLimiter limiter = com.akalea.sugar.internal.AdaptiveLimiter.of(4, 1, 16);
+        List<Integer> results = pMapAdaptive(iRange(0, 200), x -> x * 2, limiter);
+        assertEquals(map(iRange(0, 200), x -> x * 2), results);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testPEachAdaptiveRespectsLimit() {
+        com.akalea.sugar.internal.AdaptiveLimiter limiter = com.akalea.sugar.internal.AdaptiveLimiter.of(3, 1, 3);
+        AtomicInteger running = new AtomicInteger(0);
+        AtomicInteger peak = new AtomicInteger(0);
+        pEachAdaptive(iRange(0, 30), x -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            delay(2);
+            running.decrementAndGet();
+        }, limiter);
+        assertTrue(peak.get() <= 3);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testPEachAdaptivePropagatesFailure() {
+        pEachAdaptive(iRange(0, 10), x -> {
+            if (x == 5)
+                throw new IllegalStateException("boom");
+        });
+    }
+
+    @Test
+    public void testPEachAdaptiveReturnsSlotOnRejection() {
+        // a single busy thread and no queue: every submission is rejected
+        java.util.concurrent.ExecutorService rejecting = new java.util.concurrent.ThreadPoolExecutor(
+            1, 1, 0, java.util.concurrent.TimeUnit.SECONDS, new java.util.concurrent.SynchronousQueue<>());
+        java.util.concurrent.CountDownLatch busy = new java.util.concurrent.CountDownLatch(1);
+        rejecting.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        com.akalea.sugar.internal.AdaptiveLimiter limiter = com.akalea.sugar.internal.AdaptiveLimiter.of(4, 1, 4);
+        java.util.concurrent.ExecutorService previous =
+            com.akalea.sugar.internal.Pools.register(com.akalea.sugar.internal.Pools.BLOCKING, rejecting);
+        try {
+            pEachAdaptive(iRange(0, 10), x -> {
+            }, limiter);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof java.util.concurrent.RejectedExecutionException);
+        } finally {
+            if (previous != null)
+                com.akalea.sugar.internal.Pools.register(com.akalea.sugar.internal.Pools.BLOCKING, previous);
+            else
+                com.akalea.sugar.internal.Pools.unregister(com.akalea.sugar.internal.Pools.BLOCKING);
+            busy.countDown();
+            rejecting.shutdown();
+        }
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(4, limiter.getLimit());
+    }
+
+    // ==================== Resilience Tests ====================
+
+    @Test
+    public void testRetryAsyncStopsOnRejection() throws Exception {
+        com.akalea.sugar.internal.Bulkhead full = bulkhead(1);
+        full.tryAcquire();
+        AtomicInteger attempts = new AtomicInteger(0);
+        java.util.concurrent.CompletableFuture<Integer> result = retryAsync(
+            full.decorate(() -> attempts.incrementAndGet()),
+            5,
+            Duration.ofMillis(1));
+        try {
+            result.get(2, java.util.concurrent.TimeUnit.SECONDS);
+            fail();
+        } catch (java.util.concurrent.ExecutionException e) {
+            assertTrue(e.getCause() instanceof com.akalea.sugar.internal.Bulkhead.FullException);
+            assertEquals(0, attempts.get());
+        }
+    }
+
+    // ==================== Hedged Race Tests ====================
+
+    @Test
+    public void testHedgedRaceSkipsBackupWhenPrimaryIsFast() {
+        AtomicInteger backups = new AtomicInteger(0);
+        Integer result = race(
+            com.akalea.sugar.internal.Hedge.afterDelay(Duration.ofMillis(500)),
+            () -> 1,
+            () -> backups.incrementAndGet());
+        assertEquals(Integer.valueOf(1), result);
+        delay(50);
+        assertEquals(0, backups.get());
+    }
+
+    @Test
+    public void testHedgedRaceLaunchesBackupWhenPrimaryIsSlow() {
+        Integer result = race(
+            com.akalea.sugar.internal.Hedge.afterDelay(Duration.ofMillis(20)),
+            () -> {
+                delay(2000);
+                return 1;
+            },
+            () -> 2);
+        assertEquals(Integer.valueOf(2), result);
+    }
+
+    @Test
+    public void testHedgedRaceLaunchesBackupOnFailure() {
+        long start = System.nanoTime();
+        Integer result = race(
+            com.akalea.sugar.internal.Hedge.afterDelay(Duration.ofSeconds(10)),
+            () -> {
+                throw new IllegalStateException("primary down");
+            },
+            () -> 2);
+        assertEquals(Integer.valueOf(2), result);
+        assertTrue(System.nanoTime() - start < java.util.concurrent.TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testHedgedRaceFailsWhenAllFail() {
+        race(
+            com.akalea.sugar.internal.Hedge.afterDelay(Duration.ofMillis(1)),
+            () -> {
+                throw new IllegalStateException("a");
+            },
+            () -> {
+                throw new IllegalStateException("b");
+            });
+    }
+
+    @Test
+    public void testHedgePercentileTracksLatencies() {
+        com.akalea.sugar.internal.Hedge hedge =
+            com.akalea.sugar.internal.Hedge.afterPercentile(0.9, Duration.ofSeconds(1));
+        assertEquals(Duration.ofSeconds(1), hedge.getDelay());
+        for (int i = 1; i <= 100; i++)
+            hedge.record(i * 1_000_000L);
+        assertEquals(Duration.ofMillis(90), hedge.getDelay());
+    }
+
+    @Test
+    public void testHedgePercentileIncludesHedgeDelay() {
+        com.akalea.sugar.internal.Hedge hedge =
+            com.akalea.sugar.internal.Hedge.afterPercentile(0.5, Duration.ofMillis(5));
+        for (int i = 0; i < 64; i++)
+            race(hedge, () -> {
+                delay(2000);
+                return 1;
+            }, () -> 2);
+        assertTrue(hedge.getDelay().compareTo(Duration.ofMillis(5)) >= 0);
+    }
+
+    @Test
+    public void testHedgedRaceFailuresDoNotBunchBackups() {
+        long[] launches = new long[2];
+        Integer result = race(
+            com.akalea.sugar.internal.Hedge.afterDelay(Duration.ofMillis(200)),
+            () -> {
+                throw new IllegalStateException("a");
+            },
+            () -> {
+                throw new IllegalStateException("b");
+            },
+            () -> {
+                delay(5000);
+                return 3;
+            },
+            () -> {
+                launches[0] = System.nanoTime();
+                delay(5000);
+                return 4;
+            },
+            () -> {
+                launches[1] = System.nanoTime();
+                return 5;
+            });
+        assertEquals(Integer.valueOf(5), result);
+        assertTrue(launches[1] - launches[0] >= java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    public void testHedgedRaceInterruptsLosers() throws InterruptedException {
+        java.util.concurrent.CountDownLatch interrupted = new java.util.concurrent.CountDownLatch(1);
+        Integer result = race(
+            com.akalea.sugar.internal.Hedge.afterDelay(Duration.ofMillis(20)),
+            () -> {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return 1;
+            },
+            () -> 2);
+        assertEquals(Integer.valueOf(2), result);
+        assertTrue(interrupted.await(2, java.util.concurrent.TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHedgedRaceAsyncFailsLikeRaceAsync() throws InterruptedException {
+        for (java.util.concurrent.CompletableFuture<Integer> race : list(
+            Parallel.<Integer> raceAsync(
+                com.akalea.sugar.internal.Hedge.afterDelay(Duration.ofMillis(1)),
+                () -> {
+                    throw new IllegalStateException("a");
+                },
+                () -> {
+                    throw new IllegalStateException("b");
+                }),
+            Parallel.<Integer> raceAsync(
+                () -> {
+                    throw new IllegalStateException("a");
+                },
+                () -> {
+                    throw new IllegalStateException("b");
+                }))) {
+            try {
+                race.get();
+                fail();
+            } catch (java.util.concurrent.ExecutionException e) {
+                assertEquals("Race execution failed", e.getCause().getMessage());
+                assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHedgeRejectsNegativeInitialDelay() {
+        com.akalea.sugar.internal.Hedge.afterPercentile(0.9, Duration.ofMillis(-1));
+    }
+
+    // ==================== Structured Concurrency Tests ====================
+
+    @Test
+    public void testPEachStopsAfterFirstFailure() {
+        AtomicInteger processed = new AtomicInteger(0);
+        try {
+            pEach(iRange(0, 10_000), x -> {
+                if (x == 0)
+                    throw new IllegalStateException("boom");
+                processed.incrementAndGet();
+                delay(1);
+            }, 2);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(processed.get() < 1000);
+    }
+
+    @Test
+    public void testScope() {
+        try (com.akalea.sugar.internal.Scope scope = scope(Duration.ofSeconds(5))) {
+            com.akalea.sugar.internal.Scope.Subtask<Integer> a = scope.fork(() -> 20);
+            com.akalea.sugar.internal.Scope.Subtask<Integer> b = scope.fork(() -> 22);
+            scope.join();
+            assertEquals(42, a.get() + b.get());
+        }
+    }
+
+    // ==================== Deadline Tests ====================
+
+    @Test
+    public void testAwaitAllSharesOneDeadline() {
+        List<java.util.function.Supplier<Integer>> suppliers = map(iRange(0, 5), i -> () -> {
+            delay(1000);
+            return i;
+        });
+        long start = System.nanoTime();
+        List<Optional<Integer>> results = awaitAll(suppliers, Duration.ofMillis(100));
+        long elapsed = System.nanoTime() - start;
+        assertEquals(5, results.size());
+        assertTrue(results.stream().noneMatch(Optional::isPresent));
+        assertTrue(elapsed < java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void testGatherReportsPerTaskStatus() {
+        List<java.util.function.Supplier<Integer>> suppliers = list(
+            () -> 1,
+            () -> {
+                throw new IllegalStateException("boom");
+            },
+            () -> {
+                delay(5000);
+                return 3;
+            });
+        List<com.akalea.sugar.internal.TaskResult<Integer>> results = gather(suppliers, Duration.ofMillis(200));
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isCompleted());
+        assertEquals(Integer.valueOf(1), results.get(0).getValue());
+        assertTrue(results.get(1).isFailed());
+        assertTrue(results.get(1).getException() instanceof IllegalStateException);
+        assertTrue(results.get(2).isTimedOut());
+    }
+
+    @Test
+    public void testGatherWithInstantDeadline() {
+        List<java.util.function.Supplier<Integer>> suppliers = list(() -> 1, () -> 2);
+        List<com.akalea.sugar.internal.TaskResult<Integer>> results =
+            gather(suppliers, java.time.Instant.now().plusSeconds(5));
+        assertEquals(list(1, 2), map(results, com.akalea.sugar.internal.TaskResult::getValue));
+    }
 }
@@ -0,0 +1,97 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.PeriodicTask;
+
+public class PeriodicTaskTest {
+
+    @Test
+    public void testFixedDelaySubSecond() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(3);
+        PeriodicTask task = PeriodicTask.fixedDelay(runs::countDown, Duration.ofMillis(20)).start();
+        try {
+            assertTrue(runs.await(2, TimeUnit.SECONDS));
+            assertTrue(task.isRunning());
+        } finally {
+            task.stop();
+        }
+        assertFalse(task.isRunning());
+    }
+
+    @Test
+    public void testFixedRate() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(5);
+        try (PeriodicTask task = PeriodicTask.fixedRate(runs::countDown, Duration.ofMillis(10))
+            .initialDelay(Duration.ZERO)
+            .start()) {
+            assertTrue(runs.await(2, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testStopPreventsFurtherRuns() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger(0);
+        PeriodicTask task = PeriodicTask.fixedDelay(counter::incrementAndGet, Duration.ofMillis(10))
+            .initialDelay(Duration.ZERO)
+            .start();
+        Thread.sleep(50);
+        task.stop();
+        Thread.sleep(30);
+        int afterStop = counter.get();
+        Thread.sleep(100);
+        assertEquals(afterStop, counter.get());
+    }
+
+    @Test
+    public void testContinuesAfterErrorByDefault() throws InterruptedException {
+        CountDownLatch errors = new CountDownLatch(3);
+        try (PeriodicTask task = PeriodicTask.fixedDelay(() -> {
+            throw new IllegalStateException("boom");
+        }, Duration.ofMillis(10)).onError(e -> errors.countDown()).start()) {
+            assertTrue(errors.await(2, TimeUnit.SECONDS));
+            assertTrue(task.getLastError() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testStopPolicy() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger(0);
+        PeriodicTask task = PeriodicTask.fixedDelay(() -> {
+            counter.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }, Duration.ofMillis(10))
+            .initialDelay(Duration.ZERO)
+            .errorPolicy(PeriodicTask.ErrorPolicy.STOP)
+            .start();
+        Thread.sleep(150);
+        assertEquals(1, counter.get());
+        assertEquals(1, task.getFailures());
+        assertFalse(task.isRunning());
+    }
+
+    @Test
+    public void testJitterStillRuns() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(2);
+        try (PeriodicTask task = PeriodicTask.fixedRate(runs::countDown, Duration.ofMillis(10))
+            .jitter(Duration.ofMillis(10))
+            .start()) {
+            assertTrue(runs.await(2, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotConfigureAfterStart() {
+        try (PeriodicTask task = PeriodicTask.fixedDelay(() -> {
+        }, Duration.ofSeconds(1)).start()) {
+            task.jitter(Duration.ofMillis(1));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.akalea.sugar;
+
+import static com.akalea.sugar.Collections.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PipelineTest {
+
+    @Test
+    public void testSingleThreadedStagesKeepOrder() {
+        List<Integer> result = Pipeline.from(list(1, 2, 3, 4))
+            .map(x -> x * 2)
+            .map(x -> x + 1)
+            .toList();
+        assertEquals(list(3, 5, 7, 9), result);
+    }
+
+    @Test
+    public void testConcurrentStages() {
+        List<Integer> input = iRange(0, 1000);
+        List<String> result = Pipeline.from(input)
+            .map(x -> x * 2, 4)
+            .filter(x -> x % 4 == 0, 2)
+            .map(String::valueOf, 3)
+            .toList();
+        assertEquals(500, result.size());
+        assertEquals(set(map(filter(map(input, x -> x * 2), x -> x % 4 == 0), String::valueOf)), set(result));
+    }
+
+    @Test
+    public void testStagesOverlap() {
+        AtomicInteger firstStageDone = new AtomicInteger(0);
+        AtomicInteger secondStageSawEarly = new AtomicInteger(0);
+        Pipeline.from(iRange(0, 20))
+            .map(x -> {
+                Parallel.delay(5);
+                firstStageDone.incrementAndGet();
+                return x;
+            }, 1)
+            .map(x -> {
+                if (firstStageDone.get() < 20)
+                    secondStageSawEarly.incrementAndGet();
+                return x;
+            }, 1)
+            .run();
+        assertTrue(secondStageSawEarly.get() > 0);
+    }
+
+    @Test
+    public void testBatchAndFlatMap() {
+        List<List<Integer>> batches = Pipeline.from(iRange(0, 10)).batch(4).toList();
+        assertEquals(list(list(0, 1, 2, 3), list(4, 5, 6, 7), list(8, 9)), batches);
+
+        List<Integer> flattened = Pipeline.from(iRange(0, 10))
+            .batch(3)
+            .flatMap(b -> b, 1)
+            .toList();
+        assertEquals(iRange(0, 10), flattened);
+    }
+
+    @Test
+    public void testForEachAndRun() {
+        AtomicInteger sum = new AtomicInteger(0);
+        Pipeline.from(list(1, 2, 3).stream()).map(x -> x * 10, 2).forEach(sum::addAndGet);
+        assertEquals(60, sum.get());
+        assertEquals(3, Pipeline.from(list(1, 2, 3).iterator()).run());
+    }
+
+    @Test
+    public void testEmptySource() {
+        assertEquals(list(), Pipeline.from(list()).map(x -> x, 3).batch(2).toList());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testFailurePropagates() {
+        Pipeline.from(iRange(0, 100))
+            .map(x -> {
+                if (x == 50)
+                    throw new IllegalStateException("fail");
+                return x;
+            }, 4)
+            .toList();
+    }
+
+    @Test(timeout = 5000)
+    public void testFailureWakesConsumer() {
+        try {
+            Pipeline.from(list(1)).map(x -> {
+                throw new IllegalStateException("fail");
+            }).toList();
+            fail("Expected failure");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testStreamSourceClosed() throws InterruptedException {
+        java.util.concurrent.CountDownLatch closed = new java.util.concurrent.CountDownLatch(1);
+        long count = Pipeline.from(java.util.stream.Stream.of(1, 2, 3).onClose(closed::countDown))
+            .map(x -> x * 2)
+            .run();
+        assertEquals(3, count);
+        assertTrue(closed.await(5, java.util.concurrent.TimeUnit.SECONDS));
+    }
+}
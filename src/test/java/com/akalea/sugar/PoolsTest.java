@@ -0,0 +1,134 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.PoolListener;
+import com.akalea.sugar.internal.PoolStats;
+import com.akalea.sugar.internal.Pools;
+
+public class PoolsTest {
+
+    @Test
+    public void testComputePoolIsShared() {
+        assertSame(Pools.compute(), Pools.compute());
+        assertSame(Pools.blocking(), Pools.blocking());
+        assertNotSame(Pools.compute(), Pools.blocking());
+    }
+
+    @Test
+    public void testForkJoinPool() {
+        assertSame(Pools.forkJoin(), Pools.forkJoin());
+        assertEquals(Pools.cores(), Pools.forkJoin().getParallelism());
+    }
+
+    @Test
+    public void testVirtualPool() throws Exception {
+        assertSame(Pools.virtual(), Pools.virtual());
+        assertEquals((Integer) 42, Pools.virtual().submit(() -> 42).get());
+    }
+
+    @Test
+    public void testForConcurrency() {
+        assertSame(Pools.compute(), Pools.forConcurrency(1));
+        assertSame(Pools.blocking(), Pools.forConcurrency(Pools.cores() + 1));
+    }
+
+    @Test
+    public void testRegisterCustomPool() {
+        ExecutorService custom = Executors.newSingleThreadExecutor();
+        try {
+            assertNull(Pools.register("custom", custom));
+            assertTrue(Pools.isRegistered("custom"));
+            assertSame(custom, Pools.get("custom"));
+            assertSame(custom, Pools.unregister("custom"));
+            assertFalse(Pools.isRegistered("custom"));
+        } finally {
+            custom.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetUnknownPool() {
+        Pools.get("unknown");
+    }
+
+    @Test
+    public void testDefaultPoolRecreatedAfterShutdown() {
+        ExecutorService before = Pools.blocking();
+        Pools.shutdown(Duration.ofSeconds(1));
+        assertTrue(before.isShutdown());
+        ExecutorService after = Pools.blocking();
+        assertNotSame(before, after);
+        assertFalse(after.isShutdown());
+    }
+
+    @Test
+    public void testDaemonThreads() throws Exception {
+        Thread thread = Pools.daemonThreads("test").newThread(() -> {
+        });
+        assertTrue(thread.isDaemon());
+        assertEquals("sugar-test-1", thread.getName());
+    }
+
+    @Test
+    public void testStatsRecordTasks() throws Exception {
+        ExecutorService pool = Pools.blocking();
+        long before = Pools.stats(Pools.BLOCKING).getCompleted();
+        pool.submit(() -> 42).get();
+        java.util.concurrent.Future<?> failing = pool.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        try {
+            failing.get();
+        } catch (java.util.concurrent.ExecutionException e) {
+            // expected
+        }
+        Thread.sleep(50);
+        PoolStats stats = Pools.stats(Pools.BLOCKING);
+        assertTrue(stats.getCompleted() >= before + 1);
+        assertTrue(stats.getFailed() >= 1);
+        assertTrue(stats.getRunTime().getCount() >= 2);
+        assertTrue(stats.getWaitTime().getCount() >= 2);
+        assertTrue(Pools.stats().containsKey(Pools.BLOCKING));
+    }
+
+    @Test
+    public void testStatsOfUnknownPoolIsNull() {
+        assertNull(Pools.stats("no-such-pool"));
+    }
+
+    @Test
+    public void testListenerNotified() throws Exception {
+        java.util.concurrent.CountDownLatch completed = new java.util.concurrent.CountDownLatch(1);
+        PoolListener listener = new PoolListener() {
+            @Override
+            public void onComplete(String pool, long runNanos, Throwable error) {
+                if (Pools.COMPUTE.equals(pool))
+                    completed.countDown();
+            }
+        };
+        Pools.addListener(listener);
+        try {
+            Pools.compute().submit(() -> {
+            }).get();
+            assertTrue(completed.await(2, java.util.concurrent.TimeUnit.SECONDS));
+        } finally {
+            Pools.removeListener(listener);
+        }
+    }
+
+    @Test
+    public void testForkJoinStatsReportSteals() {
+        Pools.forkJoin();
+        PoolStats stats = Pools.stats(Pools.FORK_JOIN);
+        assertNotNull(stats);
+        assertTrue(stats.getSteals() >= 0);
+        assertEquals(0, stats.getRunTime().getCount());
+    }
+}
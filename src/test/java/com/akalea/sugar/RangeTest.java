@@ -6,6 +6,8 @@ import java.util.List;
 
 import org.junit.Test;
 
+import com.akalea.sugar.internal.IntList;
+import com.akalea.sugar.internal.LongList;
 import com.akalea.sugar.internal.Range;
 
 public class RangeTest {
@@ -270,6 +272,20 @@ public class RangeTest {
         assertEquals(java.util.Arrays.asList(1L, 2L, 3L, 4L, 5L), list);
     }
 
+    @Test
+    public void testToInts() {
+        assertEquals(IntList.of(0, 2, 4, 6, 8, 10), Range.toInts(Range.closed(0, 10), 2));
+        assertEquals(IntList.of(2, 3), Range.toInts(Range.open(1, 4)));
+        assertEquals(IntList.of(Integer.MAX_VALUE), Range.toInts(Range.closed(Integer.MAX_VALUE, Integer.MAX_VALUE)));
+        assertTrue(Range.toInts(Range.atLeast(0)).isEmpty());
+    }
+
+    @Test
+    public void testToLongs() {
+        assertEquals(LongList.of(1L, 2L, 3L, 4L, 5L), Range.toLongs(Range.closed(1L, 5L)));
+        assertEquals(Range.toLongList(Range.closedOpen(0L, 9L), 4L), Range.toLongs(Range.closedOpen(0L, 9L), 4L).boxed());
+    }
+
     // ==================== Accessor Tests ====================
 
     @Test
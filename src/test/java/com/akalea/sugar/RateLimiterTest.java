@@ -0,0 +1,89 @@
+package com.akalea.sugar;
+
+import static com.akalea.sugar.Collections.*;
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.RateLimiter;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testSmoothAllowsOnePermitAtOnce() {
+        RateLimiter limiter = RateLimiter.smooth(10);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testBurstyAllowsBurst() {
+        RateLimiter limiter = RateLimiter.bursty(1, 5);
+        for (int i = 0; i < 5; i++)
+            assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(5, limiter.getMaxBurst());
+    }
+
+    @Test
+    public void testMultiplePermits() {
+        RateLimiter limiter = RateLimiter.bursty(1, 5);
+        assertTrue(limiter.tryAcquire(3));
+        assertFalse(limiter.tryAcquire(3));
+        assertTrue(limiter.tryAcquire(2));
+    }
+
+    @Test
+    public void testAcquireWaits() {
+        RateLimiter limiter = RateLimiter.smooth(20);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++)
+            limiter.acquire();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs >= 180);
+    }
+
+    @Test
+    public void testTryAcquireWithTimeout() {
+        RateLimiter limiter = RateLimiter.smooth(20);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire(1, Duration.ofMillis(1)));
+        assertTrue(limiter.tryAcquire(1, Duration.ofMillis(200)));
+    }
+
+    @Test
+    public void testConcurrentCallersDoNotExceedBurst() {
+        RateLimiter limiter = RateLimiter.bursty(1, 10);
+        AtomicInteger granted = new AtomicInteger(0);
+        Parallel.pEach(iRange(0, 1000), x -> {
+            if (limiter.tryAcquire())
+                granted.incrementAndGet();
+        }, 8);
+        assertEquals(10, granted.get());
+    }
+
+    @Test
+    public void testAcquireAsync() throws Exception {
+        RateLimiter limiter = RateLimiter.smooth(20);
+        assertTrue(limiter.acquireAsync().isDone());
+        CompletableFuture<Void> second = limiter.acquireAsync();
+        assertFalse(second.isDone());
+        second.get();
+    }
+
+    @Test
+    public void testLimitDecorator() {
+        AtomicInteger calls = new AtomicInteger(0);
+        Supplier<Integer> limited = RateLimiter.smooth(50).limit(calls::incrementAndGet);
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++)
+            limited.get();
+        assertEquals(3, calls.get());
+        assertTrue((System.nanoTime() - start) / 1_000_000 >= 35);
+    }
+}
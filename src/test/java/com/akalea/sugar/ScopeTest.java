@@ -0,0 +1,107 @@
+package com.akalea.sugar;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.Scope;
+
+public class ScopeTest {
+
+    @Test
+    public void testJoinCollectsResults() {
+        try (Scope scope = Scope.open()) {
+            Scope.Subtask<Integer> a = scope.fork(() -> 1);
+            Scope.Subtask<String> b = scope.fork(() -> "b");
+            scope.join();
+            assertEquals(Integer.valueOf(1), a.get());
+            assertEquals("b", b.get());
+            assertTrue(a.isSuccess());
+        }
+    }
+
+    @Test
+    public void testFailureCancelsSiblings() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        Scope.Subtask<Object> slow;
+        try (Scope scope = Scope.open()) {
+            slow = scope.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                return null;
+            });
+            assertTrue(started.await(2, TimeUnit.SECONDS));
+            scope.fork(() -> {
+                throw new IllegalStateException("boom");
+            });
+            try {
+                scope.join();
+                fail();
+            } catch (RuntimeException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        assertTrue(interrupted.get());
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void testDeadlineCancelsSubtasks() {
+        long start = System.nanoTime();
+        try (Scope scope = Scope.open(Duration.ofMillis(50))) {
+            scope.fork(() -> Parallel.delay(10_000));
+            try {
+                scope.join();
+                fail();
+            } catch (RuntimeException e) {
+                assertTrue(e.getCause() instanceof java.util.concurrent.TimeoutException);
+            }
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void testNestedScopeInheritsDeadline() {
+        try (Scope outer = Scope.open(Duration.ofSeconds(1))) {
+            Scope.Subtask<Duration> inner = outer.fork(() -> {
+                try (Scope scope = Scope.open()) {
+                    return scope.remaining();
+                }
+            });
+            outer.join();
+            assertNotNull(inner.get());
+            assertTrue(inner.get().compareTo(Duration.ofSeconds(1)) <= 0);
+        }
+        try (Scope scope = Scope.open()) {
+            assertNull(scope.remaining());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGetBeforeJoinThrows() {
+        try (Scope scope = Scope.open()) {
+            Scope.Subtask<Integer> slow = scope.fork(() -> {
+                Parallel.delay(1000);
+                return 1;
+            });
+            slow.get();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testForkAfterCloseThrows() {
+        Scope scope = Scope.open();
+        scope.close();
+        scope.fork(() -> 1);
+    }
+}
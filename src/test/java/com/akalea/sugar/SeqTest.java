@@ -0,0 +1,95 @@
+package com.akalea.sugar;
+
+import static com.akalea.sugar.Collections.*;
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.Seq;
+
+public class SeqTest {
+
+    @Test
+    public void testChain() {
+        List<String> result = seq(1, 2, 3, 4, 5, 6)
+            .filter(x -> x % 2 == 0)
+            .map(x -> "n" + x)
+            .toList();
+        assertEquals(list("n2", "n4", "n6"), result);
+    }
+
+    @Test
+    public void testIsLazyAndShortCircuits() {
+        AtomicInteger pulled = new AtomicInteger(0);
+        Seq<Integer> chain = seq(iRange(0, 1_000_000))
+            .peek(x -> pulled.incrementAndGet())
+            .map(x -> x * 2);
+        assertEquals(0, pulled.get());
+        assertEquals(list(0, 2, 4), chain.take(3).toList());
+        assertEquals(3, pulled.get());
+        assertEquals(Integer.valueOf(20), chain.findFirst(x -> x >= 20));
+        assertTrue(chain.any(x -> x == 10));
+        assertTrue(pulled.get() < 100);
+    }
+
+    @Test
+    public void testReTraversable() {
+        Seq<Integer> evens = seq(list(1, 2, 3, 4)).filter(x -> x % 2 == 0);
+        assertEquals(2, evens.count());
+        assertEquals(list(2, 4), evens.toList());
+    }
+
+    @Test
+    public void testFlatMapDistinct() {
+        List<Integer> result = seq(list(list(1, 2), list(2, 3), null, list(3, 4)))
+            .flatMap(l -> l)
+            .distinct()
+            .toList();
+        assertEquals(list(1, 2, 3, 4), result);
+        assertEquals(list("a", "bb"), seq("a", "b", "bb", "cc").distinctBy(String::length).toList());
+    }
+
+    @Test
+    public void testTakeWhileDropWhile() {
+        assertEquals(list(1, 2, 3), seq(1, 2, 3, 4, 1).takeWhile(x -> x < 4).toList());
+        assertEquals(list(4, 1), seq(1, 2, 3, 4, 1).dropWhile(x -> x < 4).toList());
+        assertEquals(list(3, 4), seq(1, 2, 3, 4).drop(2).toList());
+    }
+
+    @Test
+    public void testSorted() {
+        assertEquals(list(1, 2, 3), seq(3, 1, 2).sorted().toList());
+        assertEquals(list(3, 2, 1), seq(3, 1, 2).sorted(Comparator.reverseOrder()).toList());
+    }
+
+    @Test
+    public void testTerminals() {
+        Seq<Integer> numbers = seq(3, 1, 4, 1, 5);
+        assertEquals(Integer.valueOf(14), numbers.reduce(Integer::sum));
+        assertEquals("31415", numbers.fold("", (acc, x) -> acc + x));
+        assertEquals(Integer.valueOf(1), numbers.min(Comparator.naturalOrder()));
+        assertEquals(Integer.valueOf(5), numbers.max(Comparator.naturalOrder()));
+        assertEquals(set(1, 3, 4, 5), numbers.toSet());
+        assertTrue(numbers.all(x -> x > 0));
+        assertTrue(numbers.none(x -> x > 5));
+        assertEquals(Integer.valueOf(3), numbers.first());
+        Map<Boolean, List<Integer>> groups = numbers.groupBy(x -> x % 2 == 0);
+        assertEquals(list(4), groups.get(true));
+        assertNull(Seq.<Integer>empty().reduce(Integer::sum));
+        assertNull(seq((List<Integer>) null).first());
+    }
+
+    @Test
+    public void testInfiniteSources() {
+        assertEquals(list(1, 2, 4, 8), Seq.iterate(1, x -> x * 2).take(4).toList());
+        assertEquals(list(7, 7), Seq.generate(() -> 7).take(2).toList());
+        assertEquals(list(2, 3, 4), Seq.range(2, 5).toList());
+        assertEquals(list(1, 2, 3, 4), seq(1, 2).concat(list(3, 4)).toList());
+        assertEquals(6, seq(1, 2, 3).stream().mapToInt(x -> x).sum());
+    }
+}
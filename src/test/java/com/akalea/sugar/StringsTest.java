@@ -11,6 +11,8 @@ import java.util.Map;
 
 import org.junit.Test;
 
+import com.akalea.sugar.internal.IntList;
+
 public class StringsTest {
 
     // ==================== isEmpty/isBlank Tests ====================
@@ -367,6 +369,14 @@ public class StringsTest {
         assertTrue(findAllIndexes("hello", null).isEmpty());
     }
 
+    @Test
+    public void testIndexesOf() {
+        assertEquals(IntList.of(0, 2, 4), indexesOf("ababa", "a"));
+        assertEquals(IntList.of(0, 2), indexesOf("aaaa", "aa"));
+        assertTrue(indexesOf("hello", "x").isEmpty());
+        assertTrue(indexesOf(null, "a").isEmpty());
+    }
+
     // ==================== default Tests ====================
 
     @Test
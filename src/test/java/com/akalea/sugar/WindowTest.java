@@ -0,0 +1,130 @@
+package com.akalea.sugar;
+
+import static com.akalea.sugar.Collections.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.akalea.sugar.internal.Window;
+
+public class WindowTest {
+
+    @Test
+    public void testView() {
+        List<Integer> source = list(1, 2, 3, 4, 5);
+        Window<Integer> window = Window.of(source, 1, 3);
+        assertEquals(list(2, 3, 4), window);
+        assertEquals(3, window.size());
+        assertEquals(1, window.getOffset());
+        source.set(2, 30);
+        assertEquals((Integer) 30, window.get(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        Window.of(list(1, 2, 3), 2, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfWindow() {
+        Window.of(list(1, 2, 3), 0, 2).get(2);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        Window.of(list(1, 2, 3), 0, 2).set(0, 5);
+    }
+
+    @Test
+    public void testSlide() {
+        Window<Integer> window = Window.of(list(1, 2, 3, 4, 5), 0, 2);
+        assertEquals(list(3, 4), window.slide(2));
+        assertTrue(window.canSlide(1));
+        assertFalse(window.canSlide(2));
+        assertEquals(list(2, 3), window.slide(-1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSlidePastEnd() {
+        Window.of(list(1, 2, 3), 0, 2).slide(2);
+    }
+
+    @Test
+    public void testSubListAndToList() {
+        Window<Integer> window = Window.of(list(1, 2, 3, 4, 5), 1, 4);
+        Window<Integer> inner = window.subList(1, 3);
+        assertEquals(list(3, 4), inner);
+        assertEquals(2, inner.getOffset());
+        List<Integer> copy = window.toList();
+        copy.add(6);
+        assertEquals(list(2, 3, 4, 5, 6), copy);
+    }
+
+    @Test
+    public void testSliding() {
+        List<List<Integer>> windows = Window.sliding(list(1, 2, 3, 4, 5), 3, 1);
+        assertEquals(3, windows.size());
+        assertEquals(list(1, 2, 3), windows.get(0));
+        assertEquals(list(3, 4, 5), windows.get(2));
+        assertEquals(sliding(list(1, 2, 3, 4, 5, 6, 7), 3, 2), Window.sliding(list(1, 2, 3, 4, 5, 6, 7), 3, 2));
+        assertTrue(Window.sliding(list(1, 2), 3, 1).isEmpty());
+    }
+
+    @Test
+    public void testChunks() {
+        List<List<Integer>> chunks = Window.chunks(list(1, 2, 3, 4, 5), 2);
+        assertEquals(3, chunks.size());
+        assertEquals(list(5), chunks.get(2));
+        assertEquals(partition(list(1, 2, 3, 4, 5), 2), chunks);
+        assertTrue(Window.chunks(new ArrayList<Integer>(), 2).isEmpty());
+    }
+
+    @Test
+    public void testHugeSizesDoNotOverflow() {
+        List<Integer> source = list(1, 2, 3);
+        assertEquals(1, Window.chunks(source, Integer.MAX_VALUE).size());
+        assertEquals(source, partitionView(source, Integer.MAX_VALUE).get(0));
+        assertFalse(Window.of(source, 0, 1).canSlide(Integer.MAX_VALUE));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testHugeWindowOutOfBounds() {
+        Window.of(list(1, 2, 3), 1, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testForEachSliding() {
+        List<List<Integer>> seen = new ArrayList<>();
+        List<Object> instances = new ArrayList<>();
+        Window.forEachSliding(list(1, 2, 3, 4, 5), 2, 2, w -> {
+            seen.add(new ArrayList<>(w));
+            instances.add(w);
+        });
+        assertEquals(2, seen.size());
+        assertEquals(list(1, 2), seen.get(0));
+        assertEquals(list(3, 4), seen.get(1));
+        assertSame(instances.get(0), instances.get(1));
+    }
+
+    @Test
+    public void testLinkedSourceIsIndexedOnce() {
+        LinkedList<Integer> source = new LinkedList<>(list(1, 2, 3, 4));
+        List<List<Integer>> windows = Window.sliding(source, 2, 1);
+        assertEquals(list(3, 4), windows.get(2));
+    }
+
+    @Test
+    public void testLargeSliding() {
+        List<Integer> samples = iRange(0, 1_000_000);
+        List<List<Integer>> windows = Window.sliding(samples, 1000, 1);
+        assertEquals(999_001, windows.size());
+        assertEquals((Integer) 999_999, windows.get(999_000).get(999));
+        long[] total = { 0 };
+        Window.forEachSliding(samples, 1000, 1000, w -> total[0] += w.get(0));
+        assertEquals(499_500_000L, total[0]);
+    }
+}